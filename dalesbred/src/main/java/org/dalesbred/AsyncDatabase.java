@@ -0,0 +1,381 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred;
+
+import org.dalesbred.annotation.SQL;
+import org.dalesbred.query.SqlQuery;
+import org.dalesbred.result.RowMapper;
+import org.dalesbred.transaction.TransactionCallback;
+import org.dalesbred.transaction.TransactionSettings;
+import org.dalesbred.transaction.VoidTransactionCallback;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>
+ * Asynchronous facade for {@link Database}: runs operations on a dedicated executor and returns
+ * {@link CompletableFuture}s instead of blocking the calling thread.
+ * </p>
+ * <p>
+ * The number of operations that may be queued or running at the same time is bounded. When the limit
+ * is reached, new operations fail immediately with {@link RejectedExecutionException} instead of
+ * blocking the caller. Operations may also be given a timeout, after which their futures complete
+ * with {@link TimeoutException}. Timing out does not interrupt a JDBC call that has already started:
+ * use {@link Database#setDefaultQueryTimeout(Integer)} to limit the time spent in the database itself.
+ * </p>
+ * <p>
+ * Each operation runs in its own transaction on the executor thread, since transactions are not
+ * shared between threads. Use {@link #withTransaction(TransactionCallback)} to run several
+ * operations in a single transaction.
+ * </p>
+ */
+public final class AsyncDatabase implements AutoCloseable {
+
+    @NotNull
+    private final Database db;
+
+    @NotNull
+    private final Executor executor;
+
+    /** Executor to shut down on {@link #close()}, or null if the executor is owned by the caller */
+    @Nullable
+    private final ExecutorService ownedExecutor;
+
+    private final int maxInFlight;
+
+    @NotNull
+    private final Semaphore permits;
+
+    /** Timeout for operations that don't specify their own, or null for no timeout */
+    @Nullable
+    private volatile Duration defaultTimeout;
+
+    /**
+     * Creates a facade that runs operations on given executor, allowing at most {@code maxInFlight}
+     * operations to be queued or running at the same time. The executor is not shut down by {@link #close()}.
+     */
+    public AsyncDatabase(@NotNull Database db, @NotNull Executor executor, int maxInFlight) {
+        this(db, executor, null, maxInFlight);
+    }
+
+    private AsyncDatabase(@NotNull Database db, @NotNull Executor executor, @Nullable ExecutorService ownedExecutor, int maxInFlight) {
+        if (maxInFlight <= 0) throw new IllegalArgumentException("non-positive maxInFlight: " + maxInFlight);
+
+        this.db = requireNonNull(db);
+        this.executor = requireNonNull(executor);
+        this.ownedExecutor = ownedExecutor;
+        this.maxInFlight = maxInFlight;
+        this.permits = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Creates a facade that runs operations on a new pool of {@code threads} daemon threads, allowing
+     * at most {@code maxInFlight} operations to be queued or running at the same time. The pool is
+     * shut down by {@link #close()}.
+     */
+    @NotNull
+    public static AsyncDatabase withThreadPool(@NotNull Database db, int threads, int maxInFlight) {
+        if (threads <= 0) throw new IllegalArgumentException("non-positive threads: " + threads);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new JdbcThreadFactory());
+        return new AsyncDatabase(db, executor, executor, maxInFlight);
+    }
+
+    /**
+     * Executes given operation against the underlying database on the executor.
+     */
+    @NotNull
+    public <T> CompletableFuture<T> execute(@NotNull Function<Database, T> operation) {
+        return execute(defaultTimeout, operation);
+    }
+
+    /**
+     * Executes given operation against the underlying database on the executor, failing the
+     * returned future with {@link TimeoutException} if it's not complete within given timeout.
+     */
+    @NotNull
+    public <T> CompletableFuture<T> execute(@Nullable Duration timeout, @NotNull Function<Database, T> operation) {
+        requireNonNull(operation);
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        if (!permits.tryAcquire()) {
+            future.completeExceptionally(new RejectedExecutionException("too many operations in flight (max " + maxInFlight + ')'));
+            return future;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    // The future may have timed out while the operation was queued
+                    if (!future.isDone())
+                        future.complete(operation.apply(db));
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            future.completeExceptionally(e);
+            return future;
+        }
+
+        if (timeout != null)
+            scheduleTimeout(future, timeout);
+
+        return future;
+    }
+
+    private static void scheduleTimeout(@NotNull CompletableFuture<?> future, @NotNull Duration timeout) {
+        ScheduledFuture<?> timeoutTask = TimeoutScheduler.INSTANCE.schedule(
+                () -> future.completeExceptionally(new TimeoutException("operation did not complete in " + timeout)),
+                timeout.toNanos(), TimeUnit.NANOSECONDS);
+
+        future.whenComplete((result, exception) -> timeoutTask.cancel(false));
+    }
+
+    /**
+     * Executes a block of code within a transaction on the executor.
+     *
+     * @see Database#withTransaction(TransactionCallback)
+     */
+    @NotNull
+    public <T> CompletableFuture<T> withTransaction(@NotNull TransactionCallback<T> callback) {
+        return execute(database -> database.withTransaction(callback));
+    }
+
+    /**
+     * Executes a block of code with given transaction settings on the executor.
+     *
+     * @see Database#withTransaction(TransactionSettings, TransactionCallback)
+     */
+    @NotNull
+    public <T> CompletableFuture<T> withTransaction(@NotNull TransactionSettings settings, @NotNull TransactionCallback<T> callback) {
+        return execute(database -> database.withTransaction(settings, callback));
+    }
+
+    /**
+     * Executes a block of code within a transaction on the executor.
+     *
+     * @see Database#withVoidTransaction(VoidTransactionCallback)
+     */
+    @NotNull
+    public CompletableFuture<Void> withVoidTransaction(@NotNull VoidTransactionCallback callback) {
+        return execute(database -> {
+            database.withVoidTransaction(callback);
+            return null;
+        });
+    }
+
+    /**
+     * @see Database#findAll(RowMapper, SqlQuery)
+     */
+    @NotNull
+    public <T> CompletableFuture<List<T>> findAll(@NotNull RowMapper<T> rowMapper, @NotNull SqlQuery query) {
+        return execute(database -> database.findAll(rowMapper, query));
+    }
+
+    /**
+     * @see Database#findAll(RowMapper, String, Object...)
+     */
+    @NotNull
+    public <T> CompletableFuture<List<T>> findAll(@NotNull RowMapper<T> rowMapper, @NotNull @SQL String sql, Object... args) {
+        return findAll(rowMapper, SqlQuery.query(sql, args));
+    }
+
+    /**
+     * @see Database#findAll(Class, SqlQuery)
+     */
+    @NotNull
+    public <T> CompletableFuture<List<T>> findAll(@NotNull Class<T> cl, @NotNull SqlQuery query) {
+        return execute(database -> database.findAll(cl, query));
+    }
+
+    /**
+     * @see Database#findAll(Class, String, Object...)
+     */
+    @NotNull
+    public <T> CompletableFuture<List<T>> findAll(@NotNull Class<T> cl, @NotNull @SQL String sql, Object... args) {
+        return findAll(cl, SqlQuery.query(sql, args));
+    }
+
+    /**
+     * @see Database#findUnique(Class, SqlQuery)
+     */
+    @NotNull
+    public <T> CompletableFuture<T> findUnique(@NotNull Class<T> cl, @NotNull SqlQuery query) {
+        return execute(database -> database.findUnique(cl, query));
+    }
+
+    /**
+     * @see Database#findUnique(Class, String, Object...)
+     */
+    @NotNull
+    public <T> CompletableFuture<T> findUnique(@NotNull Class<T> cl, @NotNull @SQL String sql, Object... args) {
+        return findUnique(cl, SqlQuery.query(sql, args));
+    }
+
+    /**
+     * @see Database#findOptional(Class, SqlQuery)
+     */
+    @NotNull
+    public <T> CompletableFuture<Optional<T>> findOptional(@NotNull Class<T> cl, @NotNull SqlQuery query) {
+        return execute(database -> database.findOptional(cl, query));
+    }
+
+    /**
+     * @see Database#findOptional(Class, String, Object...)
+     */
+    @NotNull
+    public <T> CompletableFuture<Optional<T>> findOptional(@NotNull Class<T> cl, @NotNull @SQL String sql, Object... args) {
+        return findOptional(cl, SqlQuery.query(sql, args));
+    }
+
+    /**
+     * @see Database#update(SqlQuery)
+     */
+    @NotNull
+    public CompletableFuture<Integer> update(@NotNull SqlQuery query) {
+        return execute(database -> database.update(query));
+    }
+
+    /**
+     * @see Database#update(String, Object...)
+     */
+    @NotNull
+    public CompletableFuture<Integer> update(@NotNull @SQL String sql, Object... args) {
+        return update(SqlQuery.query(sql, args));
+    }
+
+    /**
+     * @see Database#updateBatch(String, List)
+     */
+    @NotNull
+    public CompletableFuture<int[]> updateBatch(@NotNull @SQL String sql, @NotNull List<? extends List<?>> argumentLists) {
+        return execute(database -> database.updateBatch(sql, argumentLists));
+    }
+
+    /**
+     * Returns the underlying synchronous database.
+     */
+    @NotNull
+    public Database getDatabase() {
+        return db;
+    }
+
+    /**
+     * Returns the maximum number of operations that may be queued or running at the same time.
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Returns the number of operations currently queued or running.
+     */
+    public int getInFlightCount() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    /**
+     * Returns the timeout for operations that don't specify their own, or null for no timeout.
+     */
+    @Nullable
+    public Duration getDefaultTimeout() {
+        return defaultTimeout;
+    }
+
+    /**
+     * Sets the timeout for operations that don't specify their own, or null for no timeout.
+     */
+    public void setDefaultTimeout(@Nullable Duration defaultTimeout) {
+        if (defaultTimeout != null && (defaultTimeout.isNegative() || defaultTimeout.isZero()))
+            throw new IllegalArgumentException("non-positive defaultTimeout: " + defaultTimeout);
+
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    /**
+     * Shuts down the executor if it was created by {@link #withThreadPool(Database, int, int)}.
+     * Operations already submitted are allowed to finish.
+     */
+    @Override
+    public void close() {
+        if (ownedExecutor != null)
+            ownedExecutor.shutdown();
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+        return "AsyncDatabase [database=" + db + ", maxInFlight=" + maxInFlight + ']';
+    }
+
+    private static final class JdbcThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger poolCounter = new AtomicInteger();
+
+        private final int pool = poolCounter.incrementAndGet();
+
+        private final AtomicInteger threadCounter = new AtomicInteger();
+
+        @NotNull
+        @Override
+        public Thread newThread(@NotNull Runnable r) {
+            Thread thread = new Thread(r, "dalesbred-jdbc-" + pool + '-' + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Lazily created single daemon thread used for completing timed out futures.
+     */
+    private static final class TimeoutScheduler {
+
+        @NotNull
+        static final ScheduledThreadPoolExecutor INSTANCE = createScheduler();
+
+        @NotNull
+        private static ScheduledThreadPoolExecutor createScheduler() {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r, "dalesbred-timeouts");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+    }
+}
@@ -28,11 +28,22 @@ import org.dalesbred.connection.DataSourceConnectionProvider;
 import org.dalesbred.connection.DriverManagerConnectionProvider;
 import org.dalesbred.conversion.TypeConversionRegistry;
 import org.dalesbred.dialect.Dialect;
+import org.dalesbred.instrumentation.QueryListener;
+import org.dalesbred.instrumentation.QueryMetrics;
 import org.dalesbred.internal.instantiation.InstantiatorProvider;
+import org.dalesbred.internal.instrumentation.QueryTimer;
+import org.dalesbred.internal.jdbc.ConcatenatedResultSet;
+import org.dalesbred.internal.jdbc.MultiRowInsert;
+import org.dalesbred.internal.jdbc.PostgreSQLCopy;
+import org.dalesbred.internal.jdbc.ResultSetUtils;
 import org.dalesbred.internal.result.InstantiatorRowMapper;
 import org.dalesbred.internal.result.MapResultSetProcessor;
+import org.dalesbred.internal.result.PrimitiveArrayResultSetProcessors;
+import org.dalesbred.internal.result.ResultSetSpliterator;
 import org.dalesbred.internal.result.ResultTableResultSetProcessor;
+import org.dalesbred.internal.result.StreamPublisher;
 import org.dalesbred.internal.utils.JndiUtils;
+import org.dalesbred.query.BatchProgressListener;
 import org.dalesbred.query.SqlQuery;
 import org.dalesbred.result.*;
 import org.dalesbred.transaction.*;
@@ -43,11 +54,21 @@ import org.slf4j.LoggerFactory;
 
 import javax.sql.DataSource;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static java.lang.System.currentTimeMillis;
+import static java.util.Collections.singletonList;
 import static java.util.Objects.requireNonNull;
 import static org.dalesbred.internal.utils.OptionalUtils.unwrapOptionalAsNull;
 import static org.dalesbred.transaction.TransactionCallback.fromVoidCallback;
@@ -65,6 +86,12 @@ import static org.dalesbred.transaction.TransactionCallback.fromVoidCallback;
  */
 public final class Database {
 
+    /** Chunk size used for batches read from iterators or streams when batch chunk size is not set */
+    public static final int DEFAULT_STREAMING_BATCH_CHUNK_SIZE = 1000;
+
+    /** Arguments shown for batches in logs and error messages instead of the actual arguments */
+    private static final List<String> BATCH_ARGUMENTS = singletonList("<batch-update>");
+
     /** Class responsible for transaction handling */
     @NotNull
     private final TransactionManager transactionManager;
@@ -76,6 +103,28 @@ public final class Database {
     /** Should we create transactions implicitly when individual operations are invoked outside transaction */
     private boolean allowImplicitTransactions = true;
 
+    /** Fetch size for queries that don't specify their own, or null to use the default of the driver */
+    @Nullable
+    private Integer defaultFetchSize;
+
+    /** Maximum number of rows for queries that don't specify their own, or null to use the default of the driver */
+    @Nullable
+    private Integer defaultMaxRows;
+
+    /** Timeout in seconds for queries that don't specify their own, or null to use the default of the driver */
+    @Nullable
+    private Integer defaultQueryTimeout;
+
+    /** Maximum amount of rows sent to the database in a single batch, or 0 for no limit */
+    private int batchChunkSize = 0;
+
+    /** Maximum amount of rows inserted by a single rewritten statement in batch inserts, or 0 to disable rewriting */
+    private int multiRowInsertWidth = 0;
+
+    /** Listener notified about executed statements, or null if executions are not measured */
+    @Nullable
+    private QueryListener queryListener;
+
     /** The dialect that the database uses */
     @NotNull
     private final Dialect dialect;
@@ -258,18 +307,58 @@ public final class Database {
      * @throws NoActiveTransactionException if there's no active transaction.
      * @see #setAllowImplicitTransactions(boolean)
      */
-    private <T> T withCurrentTransaction(@NotNull SqlQuery query, @NotNull TransactionCallback<T> callback) {
-        SqlQuery oldQuery = DebugContext.getCurrentQuery();
+    private <T> T withCurrentTransaction(@NotNull TransactionCallback<T> callback) {
+        if (allowImplicitTransactions) {
+            return withTransaction(callback);
+        } else {
+            return transactionManager.withCurrentTransaction(callback, dialect);
+        }
+    }
+
+    /**
+     * Executes a statement within the current transaction. {@link DatabaseException}s thrown during
+     * the execution are tagged with the query of the statement.
+     */
+    private <T> T executeStatement(@NotNull StatementExecution<T> statement) {
         try {
-            DebugContext.setCurrentQuery(query);
-            if (allowImplicitTransactions) {
-                return withTransaction(callback);
-            } else {
-                return transactionManager.withCurrentTransaction(callback, dialect);
+            return withCurrentTransaction(statement);
+        } catch (DatabaseException e) {
+            // Tagging the exception here instead of tracking the current query in a thread-local
+            // keeps successful queries free of any per-thread bookkeeping.
+            e.setQueryIfAbsent(statement.query);
+            throw e;
+        }
+    }
+
+    /**
+     * A statement executed by {@link #executeStatement(StatementExecution)}. The statement is itself the
+     * callback of the transaction, so that executing it allocates nothing besides the statement. Its
+     * execution is logged and reported to the registered {@link QueryListener} through the {@link QueryTimer}
+     * given to the subclass. Failures are reported automatically.
+     */
+    private abstract class StatementExecution<T> implements TransactionCallback<T> {
+
+        @NotNull
+        final SqlQuery query;
+
+        StatementExecution(@NotNull SqlQuery query) {
+            this.query = query;
+        }
+
+        @Override
+        public final T execute(@NotNull TransactionContext tx) throws SQLException {
+            logQuery(query);
+
+            QueryTimer timer = QueryTimer.start(queryListener, query, tx);
+            try {
+                return execute(tx, timer);
+            } catch (SQLException | RuntimeException e) {
+                timer.failed(e);
+                throw e;
             }
-        } finally {
-            DebugContext.setCurrentQuery(oldQuery);
         }
+
+        protected abstract T execute(@NotNull TransactionContext tx, @NotNull QueryTimer timer) throws SQLException;
     }
 
     /**
@@ -277,16 +366,26 @@ public final class Database {
      * All other findXXX-methods are just convenience methods for this one.
      */
     public <T> T executeQuery(@NotNull ResultSetProcessor<T> processor, @NotNull SqlQuery query) {
-        return withCurrentTransaction(query, tx -> {
-            logQuery(query);
-
-            try (PreparedStatement ps = tx.getConnection().prepareStatement(query.getSql())) {
-                bindArguments(ps, query.getArguments());
-
-                long startTime = currentTimeMillis();
-                try (ResultSet resultSet = ps.executeQuery()) {
-                    logQueryExecution(query, currentTimeMillis() - startTime);
-                    return processor.process(resultSet);
+        return executeStatement(new StatementExecution<T>(query) {
+            @Override
+            protected T execute(@NotNull TransactionContext tx, @NotNull QueryTimer timer) throws SQLException {
+                PreparedStatement ps = tx.prepareStatement(query.getSql());
+                timer.prepared();
+                try {
+                    configureStatement(ps, query);
+                    bindArguments(ps, query.getArguments());
+                    timer.bound();
+
+                    long startTime = currentTimeMillis();
+                    try (ResultSet resultSet = ps.executeQuery()) {
+                        timer.executed();
+                        logQueryExecution(query, currentTimeMillis() - startTime);
+                        T result = processor.process(resultSet);
+                        timer.completedWithResult(result);
+                        return result;
+                    }
+                } finally {
+                    tx.releaseStatement(ps);
                 }
             }
         });
@@ -335,6 +434,172 @@ public final class Database {
         return findAll(cl, SqlQuery.query(sql, args));
     }
 
+    /**
+     * Executes a query and returns a stream that maps the rows of the result lazily using given {@link RowMapper}.
+     * <p>
+     * Since the results are read from the database only as the stream is consumed, the stream must be
+     * consumed within the current transaction and closed after use, preferably using try-with-resources.
+     * The underlying statement is closed when the stream is closed or when all rows have been read.
+     *
+     * @throws NoActiveTransactionException if there is no active transaction
+     */
+    @NotNull
+    public <T> Stream<T> stream(@NotNull RowMapper<T> rowMapper, @NotNull SqlQuery query) {
+        if (!transactionManager.hasActiveTransaction())
+            throw new NoActiveTransactionException("Streaming queries require an active transaction, because the results are read when the stream is consumed.");
+
+        return executeStatement(new StatementExecution<Stream<T>>(query) {
+            @Override
+            protected Stream<T> execute(@NotNull TransactionContext tx, @NotNull QueryTimer timer) throws SQLException {
+                PreparedStatement ps = tx.getConnection().prepareStatement(query.getSql());
+                timer.prepared();
+                try {
+                    configureStatement(ps, query);
+                    bindArguments(ps, query.getArguments());
+                    timer.bound();
+
+                    long startTime = currentTimeMillis();
+                    ResultSet resultSet = ps.executeQuery();
+                    timer.executed();
+                    logQueryExecution(query, currentTimeMillis() - startTime);
+
+                    // The rows are processed lazily by the caller, so the execution is reported without them.
+                    timer.completed(-1);
+
+                    Runnable close = () -> closeStatement(ps);
+                    return StreamSupport.stream(new ResultSetSpliterator<>(resultSet, rowMapper, dialect::convertException, e -> e.setQueryIfAbsent(query), close), false).onClose(close);
+                } catch (SQLException | RuntimeException e) {
+                    ps.close();
+                    throw e;
+                }
+            }
+        });
+    }
+
+    /**
+     * Executes a query and returns a stream that maps the rows of the result lazily using given {@link RowMapper}.
+     *
+     * @see #stream(RowMapper, SqlQuery)
+     */
+    @NotNull
+    public <T> Stream<T> stream(@NotNull RowMapper<T> rowMapper, @NotNull @SQL String sql, Object... args) {
+        return stream(rowMapper, SqlQuery.query(sql, args));
+    }
+
+    /**
+     * Executes a query and returns a stream that lazily converts the results to instances of given class.
+     *
+     * @see #stream(RowMapper, SqlQuery)
+     */
+    @NotNull
+    public <T> Stream<T> stream(@NotNull Class<T> cl, @NotNull SqlQuery query) {
+        return stream(rowMapperForClass(cl), query);
+    }
+
+    /**
+     * Executes a query and returns a stream that lazily converts the results to instances of given class.
+     *
+     * @see #stream(RowMapper, SqlQuery)
+     */
+    @NotNull
+    public <T> Stream<T> stream(@NotNull Class<T> cl, @NotNull @SQL String sql, Object... args) {
+        return stream(cl, SqlQuery.query(sql, args));
+    }
+
+    /**
+     * Returns a publisher that executes a query and publishes the rows of the result mapped with given
+     * {@link RowMapper}.
+     * <p>
+     * The query is executed separately for each subscriber in its own transaction on given executor.
+     * The rows are read from the database only as the subscriber requests them, so the executor thread
+     * and the connection are reserved until all rows have been published or the subscription is cancelled.
+     * Cancelling the subscription closes the statement and completes the transaction.
+     */
+    @NotNull
+    public <T> ResultFlow.Publisher<T> publisher(@NotNull RowMapper<T> rowMapper, @NotNull Executor executor, @NotNull SqlQuery query) {
+        requireNonNull(rowMapper);
+        requireNonNull(query);
+
+        return new StreamPublisher<>(executor, consumer -> withVoidTransaction(tx -> {
+            try (Stream<T> stream = stream(rowMapper, query)) {
+                consumer.accept(stream);
+            }
+        }));
+    }
+
+    /**
+     * Returns a publisher that executes a query and publishes the rows of the result mapped with given
+     * {@link RowMapper}.
+     *
+     * @see #publisher(RowMapper, Executor, SqlQuery)
+     */
+    @NotNull
+    public <T> ResultFlow.Publisher<T> publisher(@NotNull RowMapper<T> rowMapper, @NotNull Executor executor, @NotNull @SQL String sql, Object... args) {
+        return publisher(rowMapper, executor, SqlQuery.query(sql, args));
+    }
+
+    /**
+     * Returns a publisher that executes a query and publishes the results converted to instances of given class.
+     *
+     * @see #publisher(RowMapper, Executor, SqlQuery)
+     */
+    @NotNull
+    public <T> ResultFlow.Publisher<T> publisher(@NotNull Class<T> cl, @NotNull Executor executor, @NotNull SqlQuery query) {
+        return publisher(rowMapperForClass(cl), executor, query);
+    }
+
+    /**
+     * Returns a publisher that executes a query and publishes the results converted to instances of given class.
+     *
+     * @see #publisher(RowMapper, Executor, SqlQuery)
+     */
+    @NotNull
+    public <T> ResultFlow.Publisher<T> publisher(@NotNull Class<T> cl, @NotNull Executor executor, @NotNull @SQL String sql, Object... args) {
+        return publisher(cl, executor, SqlQuery.query(sql, args));
+    }
+
+    /**
+     * Executes a query and passes each row of the result to given consumer after mapping it with
+     * given {@link RowMapper}. Rows are mapped one at a time, without collecting the results.
+     */
+    public <T> void forEach(@NotNull RowMapper<T> rowMapper, @NotNull Consumer<? super T> consumer, @NotNull SqlQuery query) {
+        executeQuery(resultSet -> {
+            while (resultSet.next())
+                consumer.accept(rowMapper.mapRow(resultSet));
+            return null;
+        }, query);
+    }
+
+    /**
+     * Executes a query and passes each row of the result to given consumer after mapping it with
+     * given {@link RowMapper}.
+     *
+     * @see #forEach(RowMapper, Consumer, SqlQuery)
+     */
+    public <T> void forEach(@NotNull RowMapper<T> rowMapper, @NotNull Consumer<? super T> consumer, @NotNull @SQL String sql, Object... args) {
+        forEach(rowMapper, consumer, SqlQuery.query(sql, args));
+    }
+
+    /**
+     * Executes a query and passes each row of the result to given consumer after converting it to
+     * an instance of given class using default mechanisms.
+     *
+     * @see #forEach(RowMapper, Consumer, SqlQuery)
+     */
+    public <T> void forEach(@NotNull Class<T> cl, @NotNull Consumer<? super T> consumer, @NotNull SqlQuery query) {
+        forEach(rowMapperForClass(cl), consumer, query);
+    }
+
+    /**
+     * Executes a query and passes each row of the result to given consumer after converting it to
+     * an instance of given class using default mechanisms.
+     *
+     * @see #forEach(RowMapper, Consumer, SqlQuery)
+     */
+    public <T> void forEach(@NotNull Class<T> cl, @NotNull Consumer<? super T> consumer, @NotNull @SQL String sql, Object... args) {
+        forEach(cl, consumer, SqlQuery.query(sql, args));
+    }
+
     /**
      * Finds a unique result from database, using given {@link RowMapper} to convert the row.
      *
@@ -511,6 +776,75 @@ public final class Database {
         return findUniqueLong(SqlQuery.query(sql, args));
     }
 
+    /**
+     * Executes a query that returns a single column of non-null values and returns them as an array
+     * of longs. The values are read without boxing, which makes this considerably lighter than
+     * {@code findAll(long.class, query)} for large results. Registered type conversions are not applied.
+     *
+     * @throws UnexpectedResultException if the result has more than one column or contains nulls
+     */
+    @NotNull
+    public long[] findLongs(@NotNull SqlQuery query) {
+        return executeQuery(PrimitiveArrayResultSetProcessors.longs(), query);
+    }
+
+    /**
+     * Executes a query that returns a single column of non-null values and returns them as an array
+     * of longs.
+     *
+     * @see #findLongs(SqlQuery)
+     */
+    @NotNull
+    public long[] findLongs(@NotNull @SQL String sql, Object... args) {
+        return findLongs(SqlQuery.query(sql, args));
+    }
+
+    /**
+     * Executes a query that returns a single column of non-null values and returns them as an array
+     * of ints. The values are read without boxing, which makes this considerably lighter than
+     * {@code findAll(int.class, query)} for large results. Registered type conversions are not applied.
+     *
+     * @throws UnexpectedResultException if the result has more than one column or contains nulls
+     */
+    @NotNull
+    public int[] findInts(@NotNull SqlQuery query) {
+        return executeQuery(PrimitiveArrayResultSetProcessors.ints(), query);
+    }
+
+    /**
+     * Executes a query that returns a single column of non-null values and returns them as an array
+     * of ints.
+     *
+     * @see #findInts(SqlQuery)
+     */
+    @NotNull
+    public int[] findInts(@NotNull @SQL String sql, Object... args) {
+        return findInts(SqlQuery.query(sql, args));
+    }
+
+    /**
+     * Executes a query that returns a single column of non-null values and returns them as an array
+     * of doubles. The values are read without boxing, which makes this considerably lighter than
+     * {@code findAll(double.class, query)} for large results. Registered type conversions are not applied.
+     *
+     * @throws UnexpectedResultException if the result has more than one column or contains nulls
+     */
+    @NotNull
+    public double[] findDoubles(@NotNull SqlQuery query) {
+        return executeQuery(PrimitiveArrayResultSetProcessors.doubles(), query);
+    }
+
+    /**
+     * Executes a query that returns a single column of non-null values and returns them as an array
+     * of doubles.
+     *
+     * @see #findDoubles(SqlQuery)
+     */
+    @NotNull
+    public double[] findDoubles(@NotNull @SQL String sql, Object... args) {
+        return findDoubles(SqlQuery.query(sql, args));
+    }
+
     /**
      * Executes a query that returns at least two values and creates a map from the results,
      * using the first value as the key and rest of the values for instantiating {@code V}.
@@ -550,19 +884,49 @@ public final class Database {
         return findTable(SqlQuery.query(sql, args));
     }
 
+    /**
+     * Executes a query and creates a columnar {@link ResultTable} from the results. Columnar tables
+     * consume considerably less memory than normal tables when there are lots of rows.
+     *
+     * @see ResultTable#columnarBuilder(List)
+     */
+    @NotNull
+    public ResultTable findColumnarTable(@NotNull SqlQuery query) {
+        return executeQuery(new ResultTableResultSetProcessor(true), query);
+    }
+
+    /**
+     * Executes a query and creates a columnar {@link ResultTable} from the results.
+     *
+     * @see #findColumnarTable(SqlQuery)
+     */
+    @NotNull
+    public ResultTable findColumnarTable(@NotNull @SQL String sql, Object... args) {
+        return findColumnarTable(SqlQuery.query(sql, args));
+    }
+
     /**
      * Executes an update against the database and returns the amount of affected rows.
      */
     public int update(@NotNull SqlQuery query) {
-        return withCurrentTransaction(query, tx -> {
-            logQuery(query);
-
-            try (PreparedStatement ps = tx.getConnection().prepareStatement(query.getSql())) {
-                bindArguments(ps, query.getArguments());
-                long startTime = currentTimeMillis();
-                int count = ps.executeUpdate();
-                logQueryExecution(query, currentTimeMillis() - startTime);
-                return count;
+        return executeStatement(new StatementExecution<Integer>(query) {
+            @Override
+            protected Integer execute(@NotNull TransactionContext tx, @NotNull QueryTimer timer) throws SQLException {
+                PreparedStatement ps = tx.prepareStatement(query.getSql());
+                timer.prepared();
+                try {
+                    configureStatement(ps, query);
+                    bindArguments(ps, query.getArguments());
+                    timer.bound();
+                    long startTime = currentTimeMillis();
+                    int count = ps.executeUpdate();
+                    timer.executed();
+                    logQueryExecution(query, currentTimeMillis() - startTime);
+                    timer.completed(count);
+                    return count;
+                } finally {
+                    tx.releaseStatement(ps);
+                }
             }
         });
     }
@@ -584,30 +948,32 @@ public final class Database {
      * @return Result of processing the results with {@code generatedKeysProcessor}.
      */
     public <T> T updateAndProcessGeneratedKeys(@NotNull ResultSetProcessor<T> generatedKeysProcessor, @NotNull List<String> columnNames, @NotNull SqlQuery query) {
-        return withCurrentTransaction(query, tx -> {
-            logQuery(query);
-
-            try (PreparedStatement ps = prepareStatement(tx.getConnection(), query.getSql(), columnNames)) {
-                bindArguments(ps, query.getArguments());
-                long startTime = currentTimeMillis();
-                ps.executeUpdate();
-                logQueryExecution(query, currentTimeMillis() - startTime);
+        return executeStatement(new StatementExecution<T>(query) {
+            @Override
+            protected T execute(@NotNull TransactionContext tx, @NotNull QueryTimer timer) throws SQLException {
+                PreparedStatement ps = tx.prepareStatementReturningGeneratedKeys(query.getSql(), columnNames);
+                timer.prepared();
+                try {
+                    configureStatement(ps, query);
+                    bindArguments(ps, query.getArguments());
+                    timer.bound();
+                    long startTime = currentTimeMillis();
+                    int count = ps.executeUpdate();
+                    timer.executed();
+                    logQueryExecution(query, currentTimeMillis() - startTime);
 
-                try (ResultSet rs = ps.getGeneratedKeys()) {
-                    return generatedKeysProcessor.process(rs);
+                    try (ResultSet rs = ps.getGeneratedKeys()) {
+                        T result = generatedKeysProcessor.process(rs);
+                        timer.completed(count);
+                        return result;
+                    }
+                } finally {
+                    tx.releaseStatement(ps);
                 }
             }
         });
     }
 
-    @NotNull
-    private static PreparedStatement prepareStatement(@NotNull Connection connection, @NotNull String sql, @NotNull List<String> columnNames) throws SQLException {
-        if (columnNames.isEmpty())
-            return connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-        else
-            return connection.prepareStatement(sql, columnNames.toArray(new String[columnNames.size()]));
-    }
-
     /**
      * @see #updateAndProcessGeneratedKeys(ResultSetProcessor, List, SqlQuery)
      */
@@ -618,28 +984,192 @@ public final class Database {
     /**
      * Executes a batch update against the database, returning an array of modification
      * counts for each argument list.
+     * <p>
+     * If {@link #setBatchChunkSize(int) batch chunk size} is set, the rows are sent to the database in chunks
+     * of at most that many rows and the counts of all chunks are combined.
      */
     public int[] updateBatch(@SQL @NotNull String sql, @NotNull List<? extends  List<?>> argumentLists) {
-        SqlQuery query = SqlQuery.query(sql, "<batch-update>");
+        return executeUpdateBatch(sql, argumentLists.iterator(), batchChunkSize, null);
+    }
 
-        return withCurrentTransaction(query, tx -> {
-            logQuery(query);
+    /**
+     * Executes a batch update against the database, returning an array of modification counts for each argument list.
+     * Calls {@code progressListener} after each executed chunk.
+     *
+     * @see #updateBatch(String, List)
+     * @see #setBatchChunkSize(int)
+     */
+    public int[] updateBatch(@SQL @NotNull String sql,
+                             @NotNull List<? extends  List<?>> argumentLists,
+                             @NotNull BatchProgressListener progressListener) {
+        return executeUpdateBatch(sql, argumentLists.iterator(), batchChunkSize, requireNonNull(progressListener));
+    }
+
+    /**
+     * Executes a batch update against the database, reading the argument lists from given iterator as the batch
+     * is executed. Combined with {@link #setBatchChunkSize(int) chunking}, this allows executing batches of any size
+     * without having all arguments in memory at once. If chunk size has not been set, chunks of
+     * {@value #DEFAULT_STREAMING_BATCH_CHUNK_SIZE} rows are used.
+     *
+     * @return modification counts for each argument list
+     */
+    public int[] updateBatch(@SQL @NotNull String sql, @NotNull Iterator<? extends List<?>> argumentLists) {
+        return executeStreamingUpdateBatch(sql, argumentLists, null);
+    }
 
-            try (PreparedStatement ps = tx.getConnection().prepareStatement(sql)) {
-                for (List<?> arguments : argumentLists) {
-                    bindArguments(ps, arguments);
-                    ps.addBatch();
+    /**
+     * Executes a batch update against the database, reading the argument lists from given iterator as the batch
+     * is executed. Calls {@code progressListener} after each executed chunk.
+     *
+     * @see #updateBatch(String, Iterator)
+     */
+    public int[] updateBatch(@SQL @NotNull String sql,
+                             @NotNull Iterator<? extends List<?>> argumentLists,
+                             @NotNull BatchProgressListener progressListener) {
+        return executeStreamingUpdateBatch(sql, argumentLists, requireNonNull(progressListener));
+    }
+
+    /**
+     * Executes a batch update against the database, consuming the argument lists from given stream as the batch
+     * is executed.
+     *
+     * @see #updateBatch(String, Iterator)
+     */
+    public int[] updateBatch(@SQL @NotNull String sql, @NotNull Stream<? extends List<?>> argumentLists) {
+        return executeStreamingUpdateBatch(sql, argumentLists.iterator(), null);
+    }
+
+    /**
+     * Executes a batch update against the database, consuming items from given stream as the batch is executed
+     * and converting each of them to an argument list with {@code argumentMapper}.
+     *
+     * @see #updateBatch(String, Iterator)
+     */
+    public <T> int[] updateBatch(@SQL @NotNull String sql,
+                                 @NotNull Stream<T> items,
+                                 @NotNull Function<? super T, ? extends List<?>> argumentMapper) {
+        return executeStreamingUpdateBatch(sql, items.<List<?>>map(argumentMapper).iterator(), null);
+    }
+
+    private int[] executeStreamingUpdateBatch(@NotNull @SQL String sql,
+                                              @NotNull Iterator<? extends List<?>> argumentLists,
+                                              @Nullable BatchProgressListener progressListener) {
+        int chunkSize = (batchChunkSize > 0) ? batchChunkSize : DEFAULT_STREAMING_BATCH_CHUNK_SIZE;
+        return executeUpdateBatch(sql, argumentLists, chunkSize, progressListener);
+    }
+
+    private int[] executeUpdateBatch(@NotNull @SQL String sql,
+                                     @NotNull Iterator<? extends List<?>> argumentLists,
+                                     int chunkSize,
+                                     @Nullable BatchProgressListener progressListener) {
+        SqlQuery query = SqlQuery.query(sql, BATCH_ARGUMENTS);
+
+        return executeStatement(new StatementExecution<int[]>(query) {
+            @Override
+            protected int[] execute(@NotNull TransactionContext tx, @NotNull QueryTimer timer) throws SQLException {
+                if (multiRowInsertWidth > 1) {
+                    MultiRowInsert insert = MultiRowInsert.parse(sql).orElse(null);
+                    if (insert != null) {
+                        int width = Math.min(multiRowInsertWidth, Math.min(dialect.getMaxMultiRowInsertRows(),
+                                                                           dialect.getMaxParameters() / insert.getParametersPerRow()));
+                        if (width > 1)
+                            return completedBatch(timer, executeMultiRowInsert(tx, query, timer, insert, width, argumentLists, chunkSize, progressListener));
+                    }
+                }
+
+                PreparedStatement ps = tx.prepareStatement(sql);
+                timer.prepared();
+                try {
+                    configureStatement(ps, query);
+                    return completedBatch(timer, executeBatch(ps, query, timer, argumentLists, chunkSize, progressListener, null));
+                } finally {
+                    tx.releaseStatement(ps);
                 }
+            }
+        });
+    }
+
+    /**
+     * Executes a batch of inserts using statements that insert {@code width} rows at a time. The rows that
+     * don't fill a complete statement at the end are inserted with a single narrower statement.
+     */
+    @NotNull
+    private int[] executeMultiRowInsert(@NotNull TransactionContext tx,
+                                        @NotNull SqlQuery query,
+                                        @NotNull QueryTimer timer,
+                                        @NotNull MultiRowInsert insert,
+                                        int width,
+                                        @NotNull Iterator<? extends List<?>> argumentLists,
+                                        int chunkSize,
+                                        @Nullable BatchProgressListener progressListener) throws SQLException {
+        MultiRowInsert.RowGroups groups = insert.groups(argumentLists, width);
+
+        int[] groupCounts = new int[0];
+        if (groups.hasNext()) {
+            PreparedStatement ps = tx.prepareStatement(insert.sql(width));
+            timer.prepared();
+            try {
+                configureStatement(ps, query);
+
+                int chunkGroups = (chunkSize > 0) ? Math.max(1, chunkSize / width) : 0;
+                BatchProgressListener groupProgressListener = (progressListener == null) ? null :
+                        (chunkGroupCount, totalGroupCount) -> progressListener.chunkExecuted(chunkGroupCount * width, totalGroupCount * width);
+
+                groupCounts = executeBatch(ps, query, timer, groups, chunkGroups, groupProgressListener, null);
+            } finally {
+                tx.releaseStatement(ps);
+            }
+        }
+
+        List<List<?>> remainder = groups.getRemainder();
+        int groupedRows = groupCounts.length * width;
+        int[] counts = new int[groupedRows + remainder.size()];
+
+        for (int i = 0; i < groupCounts.length; i++)
+            fillRowCounts(counts, i * width, width, groupCounts[i]);
+
+        if (!remainder.isEmpty()) {
+            PreparedStatement ps = tx.prepareStatement(insert.sql(remainder.size()));
+            timer.prepared();
+            try {
+                configureStatement(ps, query);
+
+                List<Object> arguments = new ArrayList<>(remainder.size() * insert.getParametersPerRow());
+                for (List<?> row : remainder)
+                    arguments.addAll(row);
+                bindArguments(ps, arguments);
+                timer.bound();
+
                 long startTime = currentTimeMillis();
-                int[] counts = ps.executeBatch();
+                int count = ps.executeUpdate();
+                timer.executed();
                 logQueryExecution(query, currentTimeMillis() - startTime);
-                return counts;
+
+                fillRowCounts(counts, groupedRows, remainder.size(), count);
+
+                if (progressListener != null)
+                    progressListener.chunkExecuted(remainder.size(), counts.length);
+            } finally {
+                tx.releaseStatement(ps);
             }
-        });
+        }
+
+        return counts;
+    }
+
+    /**
+     * Distributes the update count of a statement that inserted several rows to the counts of the rows.
+     * If the count does not match the amount of rows, the counts of the rows are unknown.
+     */
+    private static void fillRowCounts(@NotNull int[] counts, int offset, int rows, int statementCount) {
+        Arrays.fill(counts, offset, offset + rows, (statementCount == rows) ? 1 : Statement.SUCCESS_NO_INFO);
     }
 
     /**
      * Executes batch of updates against the database and return generated keys as extracted by generatedKeysProcessor.
+     * <p>
+     * If the batch is executed in {@link #setBatchChunkSize(int) chunks}, the generated keys of all but
+     * the last chunk are read into memory and the processor receives the keys of all chunks as one result set.
      *
      * @param generatedKeysProcessor processor for handling the generated keys
      * @param columnNames names of columns that contain the generated keys. Can be empty, in which case the
@@ -652,41 +1182,209 @@ public final class Database {
                                                     @NotNull List<String> columnNames,
                                                     @NotNull @SQL String sql,
                                                     @NotNull List<? extends List<?>> argumentLists) {
-        SqlQuery query = SqlQuery.query(sql, "<batch-update>");
+        SqlQuery query = SqlQuery.query(sql, BATCH_ARGUMENTS);
+
+        return executeStatement(new StatementExecution<T>(query) {
+            @Override
+            protected T execute(@NotNull TransactionContext tx, @NotNull QueryTimer timer) throws SQLException {
+                PreparedStatement ps = tx.prepareStatementReturningGeneratedKeys(sql, columnNames);
+                timer.prepared();
+                try {
+                    configureStatement(ps, query);
+
+                    List<ResultSet> generatedKeys = new ArrayList<>();
+                    int[] counts = executeBatch(ps, query, timer, argumentLists.iterator(), batchChunkSize, null, generatedKeys);
+
+                    try (ResultSet rs = ConcatenatedResultSet.of(generatedKeys)) {
+                        T result = generatedKeysProcessor.process(rs);
+                        completedBatch(timer, counts);
+                        return result;
+                    }
+                } finally {
+                    tx.releaseStatement(ps);
+                }
+            }
+        });
+    }
 
-        return withCurrentTransaction(query, tx -> {
-            logQuery(query);
+    /**
+     * Binds and executes the arguments of a batch in chunks of at most {@code chunkSize} rows, or in a single
+     * chunk if {@code chunkSize} is 0. At least one chunk is executed, even if there are no arguments.
+     *
+     * @param generatedKeys if not null, the generated keys of each chunk are added to this list
+     * @return the combined update counts of all chunks
+     */
+    @NotNull
+    private int[] executeBatch(@NotNull PreparedStatement ps,
+                               @NotNull SqlQuery query,
+                               @NotNull QueryTimer timer,
+                               @NotNull Iterator<? extends List<?>> argumentLists,
+                               int chunkSize,
+                               @Nullable BatchProgressListener progressListener,
+                               @Nullable List<ResultSet> generatedKeys) throws SQLException {
+        int maxChunkRows = (chunkSize > 0) ? chunkSize : Integer.MAX_VALUE;
+
+        int[] counts = null;
+        int countsLength = 0;
+        long totalRows = 0;
+        long executionTime = 0;
+
+        do {
+            int chunkRows = 0;
+            while (chunkRows < maxChunkRows && argumentLists.hasNext()) {
+                bindArguments(ps, argumentLists.next());
+                ps.addBatch();
+                chunkRows++;
+            }
+            timer.bound();
 
-            try (PreparedStatement ps = prepareStatement(tx.getConnection(), sql, columnNames)) {
-                for (List<?> arguments : argumentLists) {
-                    bindArguments(ps, arguments);
-                    ps.addBatch();
+            long startTime = currentTimeMillis();
+            int[] chunkCounts = ps.executeBatch();
+            executionTime += currentTimeMillis() - startTime;
+
+            if (counts == null) {
+                counts = chunkCounts;
+            } else {
+                if (countsLength + chunkCounts.length > counts.length)
+                    counts = Arrays.copyOf(counts, Math.max(counts.length * 2, countsLength + chunkCounts.length));
+                System.arraycopy(chunkCounts, 0, counts, countsLength, chunkCounts.length);
+            }
+            countsLength += chunkCounts.length;
+
+            if (generatedKeys != null) {
+                // Executing the next chunk closes the generated keys of the previous one
+                if (argumentLists.hasNext()) {
+                    try (ResultSet rs = ps.getGeneratedKeys()) {
+                        generatedKeys.add(ResultSetUtils.copyToMemory(rs));
+                    }
+                } else {
+                    generatedKeys.add(ps.getGeneratedKeys());
                 }
+            }
+            timer.executed();
+
+            totalRows += chunkRows;
+            if (progressListener != null)
+                progressListener.chunkExecuted(chunkRows, totalRows);
 
+        } while (argumentLists.hasNext());
+
+        logQueryExecution(query, executionTime);
+
+        return (counts.length == countsLength) ? counts : Arrays.copyOf(counts, countsLength);
+    }
+
+    /**
+     * Reports a completed batch to the timer, counting the rows affected by the batch.
+     */
+    @NotNull
+    private static int[] completedBatch(@NotNull QueryTimer timer, @NotNull int[] counts) {
+        long rows = 0;
+        for (int count : counts)
+            if (count > 0)
+                rows += count;
+
+        timer.completed(rows);
+        return counts;
+    }
+
+    /**
+     * Loads rows into given table using PostgreSQL's {@code COPY FROM STDIN}, which is considerably faster
+     * than batch inserts for large amounts of data. The values are converted using the registered type
+     * conversions and the rows are sent to the database as the stream is consumed. Arrays are not supported.
+     * <p>
+     * Requires the PostgreSQL JDBC driver. The table and column names are inserted to the SQL as they are.
+     *
+     * @return the number of rows copied
+     */
+    public long copyIn(@NotNull String table, @NotNull List<String> columns, @NotNull Stream<? extends List<?>> rows) {
+        String sql = "COPY " + table + (columns.isEmpty() ? "" : " (" + String.join(", ", columns) + ")") + " FROM STDIN";
+        SqlQuery query = SqlQuery.query(sql, "<copy-in>");
+
+        return executeStatement(new StatementExecution<Long>(query) {
+            @Override
+            protected Long execute(@NotNull TransactionContext tx, @NotNull QueryTimer timer) throws SQLException {
                 long startTime = currentTimeMillis();
-                ps.executeBatch();
+                long count = PostgreSQLCopy.copyIn(tx.getConnection(), sql, rows.iterator(), instantiatorRegistry::valueToDatabase);
+                timer.executed();
                 logQueryExecution(query, currentTimeMillis() - startTime);
+                timer.completed(count);
+                return count;
+            }
+        });
+    }
 
-                try (ResultSet rs = ps.getGeneratedKeys()) {
-                    return generatedKeysProcessor.process(rs);
-                }
+    /**
+     * Executes given PostgreSQL {@code COPY ... TO STDOUT} statement and passes each row of the output to
+     * given consumer as it is received. The values are passed in the text format of {@code COPY}, with nulls
+     * represented as null.
+     * <p>
+     * Requires the PostgreSQL JDBC driver.
+     *
+     * @return the number of rows copied
+     */
+    public long copyOut(@NotNull @SQL String sql, @NotNull Consumer<? super List<String>> rowConsumer) {
+        SqlQuery query = SqlQuery.query(sql, "<copy-out>");
+
+        return executeStatement(new StatementExecution<Long>(query) {
+            @Override
+            protected Long execute(@NotNull TransactionContext tx, @NotNull QueryTimer timer) throws SQLException {
+                long startTime = currentTimeMillis();
+                long count = PostgreSQLCopy.copyOut(tx.getConnection(), sql, rowConsumer);
+                timer.executed();
+                logQueryExecution(query, currentTimeMillis() - startTime);
+                timer.completed(count);
+                return count;
             }
         });
     }
 
-    private void logQuery(@NotNull SqlQuery query) {
-        log.debug("executing query {}", query);
+    /**
+     * Applies the statement settings of the query, or the defaults of this database for settings
+     * that are not specified by the query.
+     */
+    private void configureStatement(@NotNull Statement statement, @NotNull SqlQuery query) throws SQLException {
+        Integer fetchSize = query.getFetchSize() != null ? query.getFetchSize() : defaultFetchSize;
+        if (fetchSize != null)
+            statement.setFetchSize(fetchSize);
+
+        Integer maxRows = query.getMaxRows() != null ? query.getMaxRows() : defaultMaxRows;
+        if (maxRows != null)
+            statement.setMaxRows(maxRows);
+
+        Integer queryTimeout = query.getQueryTimeout() != null ? query.getQueryTimeout() : defaultQueryTimeout;
+        if (queryTimeout != null)
+            statement.setQueryTimeout(queryTimeout);
     }
 
-    private void logQueryExecution(@NotNull SqlQuery query, long millis) {
-        log.debug("executed query in {} ms: {}", millis, query);
+    private void closeStatement(@NotNull Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            throw dialect.convertException(e);
+        }
     }
 
-    private void bindArguments(@NotNull PreparedStatement ps, @NotNull Iterable<?> args) throws SQLException {
-        int i = 1;
+    private void logQuery(@NotNull SqlQuery query) {
+        log.debug("executing query {}", query);
+    }
 
-        for (Object arg : args)
-            dialect.bindArgument(ps, i++, instantiatorRegistry.valueToDatabase(unwrapOptionalAsNull(arg)));
+    private void logQueryExecution(@NotNull SqlQuery query, long millis) {
+        // Check the level first to avoid boxing the time when debug logging is disabled
+        if (log.isDebugEnabled())
+            log.debug("executed query in {} ms: {}", millis, query);
+    }
+
+    private void bindArguments(@NotNull PreparedStatement ps, @NotNull List<?> args) throws SQLException {
+        // Index random access lists instead of iterating them so that binding doesn't allocate an iterator
+        if (args instanceof RandomAccess) {
+            for (int i = 0, size = args.size(); i < size; i++)
+                instantiatorRegistry.bindArgument(ps, i + 1, unwrapOptionalAsNull(args.get(i)));
+        } else {
+            int i = 1;
+            for (Object arg : args)
+                instantiatorRegistry.bindArgument(ps, i++, unwrapOptionalAsNull(arg));
+        }
     }
 
     @NotNull
@@ -723,6 +1421,150 @@ public final class Database {
         this.allowImplicitTransactions = allowImplicitTransactions;
     }
 
+    /**
+     * Returns the fetch size used for queries that don't specify their own, or null if the default of
+     * the driver is used.
+     *
+     * @see SqlQuery#withFetchSize(int)
+     */
+    @Nullable
+    public Integer getDefaultFetchSize() {
+        return defaultFetchSize;
+    }
+
+    /**
+     * Sets the fetch size used for queries that don't specify their own. Null means that the default
+     * of the driver is used.
+     *
+     * @see Statement#setFetchSize(int)
+     */
+    public void setDefaultFetchSize(@Nullable Integer defaultFetchSize) {
+        if (defaultFetchSize != null && defaultFetchSize < 0)
+            throw new IllegalArgumentException("negative fetchSize: " + defaultFetchSize);
+
+        this.defaultFetchSize = defaultFetchSize;
+    }
+
+    /**
+     * Returns the maximum number of rows returned by queries that don't specify their own limit,
+     * or null if the default of the driver is used.
+     *
+     * @see SqlQuery#withMaxRows(int)
+     */
+    @Nullable
+    public Integer getDefaultMaxRows() {
+        return defaultMaxRows;
+    }
+
+    /**
+     * Sets the maximum number of rows returned by queries that don't specify their own limit.
+     * Null means that the default of the driver is used.
+     *
+     * @see Statement#setMaxRows(int)
+     */
+    public void setDefaultMaxRows(@Nullable Integer defaultMaxRows) {
+        if (defaultMaxRows != null && defaultMaxRows < 0)
+            throw new IllegalArgumentException("negative maxRows: " + defaultMaxRows);
+
+        this.defaultMaxRows = defaultMaxRows;
+    }
+
+    /**
+     * Returns the timeout in seconds used for statements that don't specify their own, or null if
+     * the default of the driver is used.
+     *
+     * @see SqlQuery#withQueryTimeout(int)
+     */
+    @Nullable
+    public Integer getDefaultQueryTimeout() {
+        return defaultQueryTimeout;
+    }
+
+    /**
+     * Sets the timeout in seconds used for statements that don't specify their own. Null means that
+     * the default of the driver is used.
+     *
+     * @see Statement#setQueryTimeout(int)
+     */
+    public void setDefaultQueryTimeout(@Nullable Integer defaultQueryTimeout) {
+        if (defaultQueryTimeout != null && defaultQueryTimeout < 0)
+            throw new IllegalArgumentException("negative queryTimeout: " + defaultQueryTimeout);
+
+        this.defaultQueryTimeout = defaultQueryTimeout;
+    }
+
+    /**
+     * Returns the maximum amount of rows sent to the database in a single batch, or 0 if batches are not split.
+     */
+    public int getBatchChunkSize() {
+        return batchChunkSize;
+    }
+
+    /**
+     * Sets the maximum amount of rows sent to the database in a single batch. Larger batches are executed
+     * in several chunks, which limits the memory needed by the driver for very large batches. All chunks
+     * are executed in the same transaction. By default batches are not split.
+     *
+     * @param batchChunkSize maximum amount of rows in a chunk, or 0 to send each batch at once
+     */
+    public void setBatchChunkSize(int batchChunkSize) {
+        if (batchChunkSize < 0) throw new IllegalArgumentException("negative batchChunkSize: " + batchChunkSize);
+
+        this.batchChunkSize = batchChunkSize;
+    }
+
+    /**
+     * Returns the maximum amount of rows inserted by a single statement when batch inserts are rewritten,
+     * or 0 if rewriting is disabled.
+     */
+    public int getMultiRowInsertWidth() {
+        return multiRowInsertWidth;
+    }
+
+    /**
+     * Enables rewriting of batch inserts into multi-row inserts. When enabled, {@code updateBatch} executes
+     * statements of form {@code INSERT INTO ... VALUES (?, ?)} as statements inserting several rows with
+     * {@code INSERT INTO ... VALUES (?, ?), (?, ?), ...}, which greatly reduces the amount of statement
+     * executions for drivers that execute each row of a batch separately.
+     * <p>
+     * The amount of rows per statement is further limited by the {@link Dialect}. Statements that can't be
+     * rewritten are executed as normal batches. Since the database reports only the total count of each
+     * statement, the counts of individual rows are reported as 1 if the total matches the amount of rows
+     * and as {@link Statement#SUCCESS_NO_INFO} otherwise.
+     *
+     * @param multiRowInsertWidth maximum amount of rows per statement, or 0 to disable rewriting
+     */
+    public void setMultiRowInsertWidth(int multiRowInsertWidth) {
+        if (multiRowInsertWidth < 0) throw new IllegalArgumentException("negative multiRowInsertWidth: " + multiRowInsertWidth);
+
+        this.multiRowInsertWidth = multiRowInsertWidth;
+    }
+
+    /**
+     * Returns the listener notified about executed statements, if any.
+     */
+    @Nullable
+    public QueryListener getQueryListener() {
+        return queryListener;
+    }
+
+    /**
+     * Sets a listener that is notified about each statement executed by this database, with the time spent
+     * preparing, binding, executing and processing the results of the statement. If the database uses
+     * {@link DefaultTransactionManager}, the listener is notified about completed transactions as well.
+     * <p>
+     * When there is no listener, statements are not measured at all.
+     *
+     * @param queryListener listener to notify, or null to disable notifications
+     * @see QueryMetrics
+     */
+    public void setQueryListener(@Nullable QueryListener queryListener) {
+        this.queryListener = queryListener;
+
+        if (transactionManager instanceof DefaultTransactionManager)
+            ((DefaultTransactionManager) transactionManager).setQueryListener(queryListener);
+    }
+
     /**
      * Returns a string containing useful debug information about the state of this object.
      */
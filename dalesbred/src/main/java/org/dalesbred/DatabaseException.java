@@ -32,7 +32,7 @@ import org.jetbrains.annotations.Nullable;
 public class DatabaseException extends RuntimeException {
 
     @Nullable
-    private final SqlQuery query = DebugContext.getCurrentQuery();
+    private SqlQuery query;
 
     public DatabaseException(@NotNull String message) {
         super(message);
@@ -55,6 +55,15 @@ public class DatabaseException extends RuntimeException {
         return query;
     }
 
+    /**
+     * Records the query during which this exception was thrown, unless the exception already
+     * has a query from a nested execution.
+     */
+    void setQueryIfAbsent(@NotNull SqlQuery query) {
+        if (this.query == null)
+            this.query = query;
+    }
+
     @NotNull
     @Override
     public String toString() {
@@ -151,6 +151,31 @@ public abstract class Dialect {
 
     }
 
+    /**
+     * Returns the maximum number of parameters that a single statement may contain.
+     */
+    public int getMaxParameters() {
+        return Short.MAX_VALUE;
+    }
+
+    /**
+     * Returns the maximum number of rows in a single {@code INSERT ... VALUES (...), (...)} statement,
+     * or 1 if the database does not support inserting several rows with {@code VALUES}.
+     */
+    public int getMaxMultiRowInsertRows() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Sets the read-only mode of given connection. Called with {@code true} before any statements of a
+     * read-only transaction are executed, and with {@code false} after the transaction has completed.
+     * The default implementation uses {@link Connection#setReadOnly(boolean)}, which most drivers pass
+     * on to the database so that it can skip locking and other bookkeeping needed only for writes.
+     */
+    public void setReadOnly(@NotNull Connection connection, boolean readOnly) throws SQLException {
+        connection.setReadOnly(readOnly);
+    }
+
     /**
      * Bind object to {@link PreparedStatement}. Can be overridden by subclasses to
      * implement custom argument binding.
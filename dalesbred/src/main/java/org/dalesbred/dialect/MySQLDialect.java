@@ -26,4 +26,9 @@ package org.dalesbred.dialect;
  * Support for MySQL.
  */
 public class MySQLDialect extends Dialect {
+
+    @Override
+    public int getMaxParameters() {
+        return 65535;
+    }
 }
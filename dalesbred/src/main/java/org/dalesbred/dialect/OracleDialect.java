@@ -30,8 +30,10 @@ import org.jetbrains.annotations.Nullable;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.sql.Array;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 /**
  * Support for Oracle.
@@ -69,4 +71,29 @@ public class OracleDialect extends Dialect {
             throw new DatabaseException(e);
         }
     }
+
+    /**
+     * Starts read-only transactions with {@code SET TRANSACTION READ ONLY}, which must be the first statement
+     * of the transaction, instead of {@link Connection#setReadOnly(boolean)}, whose effect depends on the version
+     * of the driver. Since the mode ends with the transaction, nothing needs to be done to leave it: issuing
+     * a statement then would start a new transaction on a connection that is about to be released.
+     */
+    @Override
+    public void setReadOnly(@NotNull Connection connection, boolean readOnly) throws SQLException {
+        if (readOnly) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET TRANSACTION READ ONLY");
+            }
+        }
+    }
+
+    @Override
+    public int getMaxParameters() {
+        return 65535;
+    }
+
+    @Override
+    public int getMaxMultiRowInsertRows() {
+        return 1;
+    }
 }
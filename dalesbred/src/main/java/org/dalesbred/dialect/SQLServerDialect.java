@@ -26,4 +26,14 @@ package org.dalesbred.dialect;
  * Support for Microsoft SQL Server.
  */
 public class SQLServerDialect extends Dialect {
+
+    @Override
+    public int getMaxParameters() {
+        return 2100;
+    }
+
+    @Override
+    public int getMaxMultiRowInsertRows() {
+        return 1000;
+    }
 }
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.instrumentation;
+
+import org.dalesbred.query.SqlQuery;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Describes a single execution of a statement. All times are in nanoseconds and a phase that was not
+ * reached before a failure has time 0.
+ */
+public final class QueryExecution {
+
+    @NotNull
+    private final SqlQuery query;
+
+    private final long prepareNanos;
+
+    private final long bindNanos;
+
+    private final long executeNanos;
+
+    private final long processNanos;
+
+    private final long rowCount;
+
+    private final long transactionElapsedNanos;
+
+    @Nullable
+    private final Throwable failure;
+
+    public QueryExecution(@NotNull SqlQuery query,
+                          long prepareNanos,
+                          long bindNanos,
+                          long executeNanos,
+                          long processNanos,
+                          long rowCount,
+                          long transactionElapsedNanos,
+                          @Nullable Throwable failure) {
+        this.query = requireNonNull(query);
+        this.prepareNanos = prepareNanos;
+        this.bindNanos = bindNanos;
+        this.executeNanos = executeNanos;
+        this.processNanos = processNanos;
+        this.rowCount = rowCount;
+        this.transactionElapsedNanos = transactionElapsedNanos;
+        this.failure = failure;
+    }
+
+    /**
+     * Returns the executed query. Batches are reported as a single query without arguments.
+     */
+    @NotNull
+    public SqlQuery getQuery() {
+        return query;
+    }
+
+    /**
+     * Returns the time spent preparing the statement, or retrieving it from the statement cache.
+     */
+    public long getPrepareNanos() {
+        return prepareNanos;
+    }
+
+    /**
+     * Returns the time spent configuring the statement and binding its arguments.
+     */
+    public long getBindNanos() {
+        return bindNanos;
+    }
+
+    /**
+     * Returns the time spent executing the statement in the database.
+     */
+    public long getExecuteNanos() {
+        return executeNanos;
+    }
+
+    /**
+     * Returns the time spent fetching and mapping the results.
+     */
+    public long getProcessNanos() {
+        return processNanos;
+    }
+
+    /**
+     * Returns the total time of all phases.
+     */
+    public long getTotalNanos() {
+        return prepareNanos + bindNanos + executeNanos + processNanos;
+    }
+
+    /**
+     * Returns the total time of all phases in given unit.
+     */
+    public long getTotalTime(@NotNull TimeUnit unit) {
+        return unit.convert(getTotalNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the amount of rows returned or affected by the statement, or -1 if it is not known.
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns the nanoseconds elapsed in the enclosing transaction when the execution completed,
+     * or -1 if not known.
+     */
+    public long getTransactionElapsedNanos() {
+        return transactionElapsedNanos;
+    }
+
+    /**
+     * Returns the exception that caused the execution to fail, or null if it succeeded.
+     */
+    @Nullable
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryExecution [query=" + query + ", totalNanos=" + getTotalNanos() + ", rowCount=" + rowCount + ", failed=" + isFailed() + ']';
+    }
+}
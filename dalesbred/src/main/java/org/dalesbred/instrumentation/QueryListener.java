@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.instrumentation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Listener that is notified about executed queries and completed transactions.
+ * <p>
+ * Listeners are invoked synchronously on the thread executing the query, so they should return quickly.
+ * Runtime exceptions thrown by the listener are logged and ignored: they don't fail the query or roll back
+ * the transaction.
+ *
+ * @see org.dalesbred.Database#setQueryListener(QueryListener)
+ * @see QueryMetrics
+ */
+@FunctionalInterface
+public interface QueryListener {
+
+    /**
+     * Called after each statement executed by the database, whether it succeeded or not.
+     */
+    void queryExecuted(@NotNull QueryExecution execution);
+
+    /**
+     * Called when a transaction started by {@link org.dalesbred.transaction.DefaultTransactionManager}
+     * completes. Nested and joined transactions are not reported separately.
+     *
+     * @param totalNanos time from the start of the transaction until it was completed
+     * @param completionNanos time spent committing or rolling back the transaction
+     * @param committed true if the transaction was committed, false if it was rolled back
+     */
+    default void transactionCompleted(long totalNanos, long completionNanos, boolean committed) {
+    }
+
+    /**
+     * Returns a listener that notifies all given listeners in order.
+     */
+    @NotNull
+    static QueryListener composite(@NotNull QueryListener... listeners) {
+        List<QueryListener> list = asList(listeners.clone());
+
+        return new QueryListener() {
+            @Override
+            public void queryExecuted(@NotNull QueryExecution execution) {
+                for (QueryListener listener : list)
+                    listener.queryExecuted(execution);
+            }
+
+            @Override
+            public void transactionCompleted(long totalNanos, long completionNanos, boolean committed) {
+                for (QueryListener listener : list)
+                    listener.transactionCompleted(totalNanos, completionNanos, committed);
+            }
+        };
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.instrumentation;
+
+import org.dalesbred.internal.utils.BoundedCache;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * {@link QueryListener} that collects latency histograms and counts for each statement, keyed by normalized
+ * SQL. Normalization replaces literals with placeholders and collapses lists of placeholders, so that
+ * statements differing only in their literal values or in the size of their {@code IN}-lists are counted
+ * together.
+ * <p>
+ * To limit the memory used by applications that generate lots of distinct SQL, statistics are kept for at
+ * most {@code maxStatements} statements. Executions of any further statements are counted under
+ * {@link #OTHER_STATEMENTS}.
+ *
+ * <pre>
+ * QueryMetrics metrics = new QueryMetrics();
+ * db.setQueryListener(metrics);
+ * ...
+ * for (QueryStatistics stats : metrics.getStatistics().values())
+ *     report(stats.getSql(), stats.getTotalTimes().getValueAtPercentile(99));
+ * </pre>
+ */
+public final class QueryMetrics implements QueryListener {
+
+    /** Key used for statements exceeding the limit of tracked statements */
+    public static final String OTHER_STATEMENTS = "<other>";
+
+    private static final int DEFAULT_MAX_STATEMENTS = 1000;
+
+    private final int maxStatements;
+
+    private final ConcurrentMap<String, QueryStatistics> statisticsBySql = new ConcurrentHashMap<>();
+
+    /** Statistics by raw SQL, so that frequently executed statements don't need to be normalized each time */
+    private final BoundedCache<String, QueryStatistics> statisticsByRawSql;
+
+    private final LatencyHistogram transactionTimes = new LatencyHistogram();
+
+    private final LatencyHistogram commitTimes = new LatencyHistogram();
+
+    private final LongAdder rollbacks = new LongAdder();
+
+    public QueryMetrics() {
+        this(DEFAULT_MAX_STATEMENTS);
+    }
+
+    /**
+     * Constructs metrics that track at most given amount of distinct normalized statements.
+     */
+    public QueryMetrics(int maxStatements) {
+        if (maxStatements <= 0) throw new IllegalArgumentException("invalid maxStatements: " + maxStatements);
+
+        this.maxStatements = maxStatements;
+        this.statisticsByRawSql = new BoundedCache<>(maxStatements);
+    }
+
+    @Override
+    public void queryExecuted(@NotNull QueryExecution execution) {
+        statisticsByRawSql.computeIfAbsent(execution.getQuery().getSql(), this::statisticsFor).record(execution);
+    }
+
+    @Override
+    public void transactionCompleted(long totalNanos, long completionNanos, boolean committed) {
+        transactionTimes.record(totalNanos);
+        if (committed)
+            commitTimes.record(completionNanos);
+        else
+            rollbacks.increment();
+    }
+
+    @NotNull
+    private QueryStatistics statisticsFor(@NotNull String rawSql) {
+        String sql = normalizeSql(rawSql);
+
+        QueryStatistics statistics = statisticsBySql.get(sql);
+        if (statistics != null)
+            return statistics;
+
+        if (statisticsBySql.size() >= maxStatements)
+            sql = OTHER_STATEMENTS;
+
+        return statisticsBySql.computeIfAbsent(sql, QueryStatistics::new);
+    }
+
+    /**
+     * Returns a snapshot of statistics of all tracked statements, ordered by normalized SQL.
+     */
+    @NotNull
+    public Map<String, QueryStatistics> getStatistics() {
+        return unmodifiableMap(new TreeMap<>(statisticsBySql));
+    }
+
+    /**
+     * Returns the statistics of given statement, if it has been executed.
+     */
+    @NotNull
+    public Optional<QueryStatistics> getStatistics(@NotNull String sql) {
+        return Optional.ofNullable(statisticsBySql.get(normalizeSql(sql)));
+    }
+
+    /**
+     * Returns the histogram of total durations of transactions.
+     */
+    @NotNull
+    public LatencyHistogram getTransactionTimes() {
+        return transactionTimes;
+    }
+
+    /**
+     * Returns the histogram of durations of commits.
+     */
+    @NotNull
+    public LatencyHistogram getCommitTimes() {
+        return commitTimes;
+    }
+
+    public long getRollbackCount() {
+        return rollbacks.sum();
+    }
+
+    /**
+     * Removes all collected statistics.
+     */
+    public void reset() {
+        statisticsByRawSql.clear();
+        statisticsBySql.clear();
+        transactionTimes.reset();
+        commitTimes.reset();
+        rollbacks.reset();
+    }
+
+    /**
+     * Normalizes given SQL by collapsing whitespace, replacing string and numeric literals with {@code ?}
+     * and collapsing comma-separated lists of {@code ?} to a single {@code ?}.
+     */
+    @NotNull
+    public static String normalizeSql(@NotNull String sql) {
+        StringBuilder sb = new StringBuilder(sql.length());
+        int length = sql.length();
+        int i = 0;
+
+        while (i < length) {
+            char ch = sql.charAt(i);
+
+            if (Character.isWhitespace(ch)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i)))
+                    i++;
+                if (sb.length() != 0 && i < length)
+                    sb.append(' ');
+
+            } else if (ch == '\'') {
+                i = skipQuoted(sql, i, '\'');
+                appendPlaceholder(sb);
+
+            } else if (ch == '"') {
+                int end = skipQuoted(sql, i, '"');
+                sb.append(sql, i, end);
+                i = end;
+
+            } else if (Character.isDigit(ch) && !endsWithIdentifier(sb)) {
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.'))
+                    i++;
+                appendPlaceholder(sb);
+
+            } else if (ch == '?') {
+                i++;
+                appendPlaceholder(sb);
+
+            } else {
+                sb.append(ch);
+                i++;
+            }
+        }
+
+        return sb.toString();
+    }
+
+    private static int skipQuoted(@NotNull String sql, int start, char quote) {
+        int i = start + 1;
+        while (i < sql.length()) {
+            if (sql.charAt(i++) == quote) {
+                if (i < sql.length() && sql.charAt(i) == quote)
+                    i++;
+                else
+                    break;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Appends a placeholder unless the builder already ends with a list of placeholders that
+     * the new one would just extend.
+     */
+    private static void appendPlaceholder(@NotNull StringBuilder sb) {
+        int end = sb.length();
+        int i = end - 1;
+        while (i >= 0 && sb.charAt(i) == ' ')
+            i--;
+        if (i >= 0 && sb.charAt(i) == ',') {
+            i--;
+            while (i >= 0 && sb.charAt(i) == ' ')
+                i--;
+            if (i >= 0 && sb.charAt(i) == '?') {
+                sb.setLength(i + 1);
+                return;
+            }
+        }
+        sb.append('?');
+    }
+
+    private static boolean endsWithIdentifier(@NotNull StringBuilder sb) {
+        if (sb.length() == 0)
+            return false;
+
+        char last = sb.charAt(sb.length() - 1);
+        return Character.isLetterOrDigit(last) || last == '_' || last == '$';
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.instrumentation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Statistics collected by {@link QueryMetrics} for executions of a single normalized statement.
+ * All times are in nanoseconds.
+ */
+public final class QueryStatistics {
+
+    @NotNull
+    private final String sql;
+
+    private final LongAdder failures = new LongAdder();
+
+    private final LongAdder rows = new LongAdder();
+
+    private final LatencyHistogram totalTimes = new LatencyHistogram();
+
+    private final LatencyHistogram executeTimes = new LatencyHistogram();
+
+    private final LatencyHistogram processTimes = new LatencyHistogram();
+
+    QueryStatistics(@NotNull String sql) {
+        this.sql = requireNonNull(sql);
+    }
+
+    void record(@NotNull QueryExecution execution) {
+        totalTimes.record(execution.getTotalNanos());
+        executeTimes.record(execution.getExecuteNanos());
+        processTimes.record(execution.getProcessNanos());
+
+        if (execution.isFailed())
+            failures.increment();
+
+        long rowCount = execution.getRowCount();
+        if (rowCount > 0)
+            rows.add(rowCount);
+    }
+
+    /**
+     * Returns the normalized SQL of the statement.
+     */
+    @NotNull
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Returns the amount of executions, including failed ones.
+     */
+    public long getExecutionCount() {
+        return totalTimes.getCount();
+    }
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Returns the total amount of rows returned or affected by the executions.
+     */
+    public long getRowCount() {
+        return rows.sum();
+    }
+
+    /**
+     * Returns the histogram of total times of executions.
+     */
+    @NotNull
+    public LatencyHistogram getTotalTimes() {
+        return totalTimes;
+    }
+
+    /**
+     * Returns the histogram of times spent executing the statement in the database.
+     */
+    @NotNull
+    public LatencyHistogram getExecuteTimes() {
+        return executeTimes;
+    }
+
+    /**
+     * Returns the histogram of times spent fetching and mapping the results.
+     */
+    @NotNull
+    public LatencyHistogram getProcessTimes() {
+        return processTimes;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryStatistics [sql=" + sql + ", executions=" + getExecutionCount() + ", failures=" + getFailureCount() +
+                ", p50=" + totalTimes.getValueAtPercentile(50) + ", p99=" + totalTimes.getValueAtPercentile(99) + ']';
+    }
+}
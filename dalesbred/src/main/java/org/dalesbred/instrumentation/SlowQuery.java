@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.instrumentation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Instant;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A statement recorded by {@link SlowQueryLog}.
+ */
+public final class SlowQuery {
+
+    @NotNull
+    private final Instant time;
+
+    @NotNull
+    private final QueryExecution execution;
+
+    SlowQuery(@NotNull Instant time, @NotNull QueryExecution execution) {
+        this.time = requireNonNull(time);
+        this.execution = requireNonNull(execution);
+    }
+
+    /**
+     * Returns the time when the execution completed.
+     */
+    @NotNull
+    public Instant getTime() {
+        return time;
+    }
+
+    /**
+     * Returns the details of the execution. If the log redacts arguments, the arguments of the
+     * query have been replaced with {@link SlowQueryLog#REDACTED}.
+     */
+    @NotNull
+    public QueryExecution getExecution() {
+        return execution;
+    }
+
+    @Override
+    public String toString() {
+        return time + " " + execution;
+    }
+}
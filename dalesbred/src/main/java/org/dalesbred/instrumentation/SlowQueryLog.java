@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.instrumentation;
+
+import org.dalesbred.query.SqlQuery;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * {@link QueryListener} that records statements whose execution or processing of results takes longer
+ * than a threshold. The most recent slow statements are kept in a bounded buffer that can be inspected
+ * at runtime, and each of them is logged as a warning.
+ *
+ * <pre>
+ * SlowQueryLog slowQueries = new SlowQueryLog(Duration.ofMillis(500), 100);
+ * slowQueries.setRedactArguments(true);
+ * db.setQueryListener(slowQueries);
+ * ...
+ * List&lt;SlowQuery&gt; recent = slowQueries.getSlowQueries();
+ * </pre>
+ */
+public final class SlowQueryLog implements QueryListener {
+
+    /** Value that replaces the arguments of recorded queries when arguments are redacted */
+    public static final String REDACTED = "<redacted>";
+
+    private final long thresholdNanos;
+
+    private final AtomicReferenceArray<SlowQuery> buffer;
+
+    /** Amount of slow queries recorded, the next one is stored at {@code recorded % capacity} */
+    private final AtomicLong recorded = new AtomicLong();
+
+    private volatile boolean redactArguments = false;
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    /**
+     * Constructs a log that records statements that take at least {@code threshold} to execute or to
+     * process the results, retaining at most {@code capacity} most recent of them.
+     */
+    public SlowQueryLog(@NotNull Duration threshold, int capacity) {
+        if (threshold.isNegative()) throw new IllegalArgumentException("negative threshold: " + threshold);
+        if (capacity <= 0) throw new IllegalArgumentException("invalid capacity: " + capacity);
+
+        this.thresholdNanos = threshold.toNanos();
+        this.buffer = new AtomicReferenceArray<>(capacity);
+    }
+
+    @Override
+    public void queryExecuted(@NotNull QueryExecution execution) {
+        if (execution.getExecuteNanos() < thresholdNanos && execution.getProcessNanos() < thresholdNanos)
+            return;
+
+        QueryExecution recordedExecution = redactArguments ? redact(execution) : execution;
+
+        long index = recorded.getAndIncrement();
+        buffer.set((int) (index % buffer.length()), new SlowQuery(Instant.now(), recordedExecution));
+
+        log.warn("slow query: executed in {} ms, processed {} rows in {} ms: {}",
+                TimeUnit.NANOSECONDS.toMillis(execution.getExecuteNanos()),
+                execution.getRowCount(),
+                TimeUnit.NANOSECONDS.toMillis(execution.getProcessNanos()),
+                recordedExecution.getQuery());
+    }
+
+    @NotNull
+    private static QueryExecution redact(@NotNull QueryExecution execution) {
+        SqlQuery query = execution.getQuery();
+        SqlQuery redactedQuery = SqlQuery.query(query.getSql(), Collections.nCopies(query.getArguments().size(), REDACTED));
+
+        return new QueryExecution(redactedQuery,
+                execution.getPrepareNanos(),
+                execution.getBindNanos(),
+                execution.getExecuteNanos(),
+                execution.getProcessNanos(),
+                execution.getRowCount(),
+                execution.getTransactionElapsedNanos(),
+                execution.getFailure());
+    }
+
+    /**
+     * Returns the retained slow queries, oldest first.
+     */
+    @NotNull
+    public List<SlowQuery> getSlowQueries() {
+        int capacity = buffer.length();
+        long end = recorded.get();
+        long start = Math.max(0, end - capacity);
+
+        List<SlowQuery> result = new ArrayList<>((int) (end - start));
+        for (long i = start; i < end; i++) {
+            SlowQuery query = buffer.get((int) (i % capacity));
+            if (query != null)
+                result.add(query);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the total amount of slow queries recorded, including the ones no longer retained.
+     */
+    public long getSlowQueryCount() {
+        return recorded.get();
+    }
+
+    /**
+     * Returns the threshold of execution or processing time for slow queries.
+     */
+    @NotNull
+    public Duration getThreshold() {
+        return Duration.ofNanos(thresholdNanos);
+    }
+
+    /**
+     * Returns the maximum amount of slow queries retained.
+     */
+    public int getCapacity() {
+        return buffer.length();
+    }
+
+    public boolean isRedactArguments() {
+        return redactArguments;
+    }
+
+    /**
+     * If set, the arguments of recorded and logged queries are replaced with {@link #REDACTED} so
+     * that sensitive values are not retained. By default arguments are recorded as they are.
+     */
+    public void setRedactArguments(boolean redactArguments) {
+        this.redactArguments = redactArguments;
+    }
+
+    /**
+     * Removes all retained slow queries and resets the count of recorded queries.
+     */
+    public void clear() {
+        recorded.set(0);
+        for (int i = 0; i < buffer.length(); i++)
+            buffer.set(i, null);
+    }
+}
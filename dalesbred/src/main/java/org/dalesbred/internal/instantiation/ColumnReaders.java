@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.internal.instantiation;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Type;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+
+import static java.lang.invoke.MethodType.methodType;
+import static org.dalesbred.internal.utils.Primitives.wrap;
+
+/**
+ * Method handles for reading columns of the current row of a {@link ResultSet}.
+ */
+final class ColumnReaders {
+
+    @NotNull
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    @NotNull
+    private static final MethodHandle READ_OBJECT = findReader("readObject", methodType(Object.class, TypeConversion.class, ResultSet.class, int.class));
+
+    private ColumnReaders() { }
+
+    /**
+     * Returns a handle of type {@code (ResultSet)targetType} that reads given column using
+     * typed getter such as {@link ResultSet#getInt(int)}. Typed reads are used only for primitive
+     * targets whose wrapper type matches the type of the column, so that the value needs no conversion.
+     */
+    @NotNull
+    static Optional<MethodHandle> findTypedReader(@NotNull Type columnType, @NotNull Class<?> targetType, int column) {
+        if (!targetType.isPrimitive() || wrap(targetType) != columnType)
+            return Optional.empty();
+
+        String name = primitiveReaderName(targetType);
+        if (name == null)
+            return Optional.empty();
+
+        MethodHandle reader = findReader(name, methodType(targetType, ResultSet.class, int.class));
+        return Optional.of(MethodHandles.insertArguments(reader, 1, column));
+    }
+
+    /**
+     * Returns a handle of type {@code (ResultSet)Object} that reads given column as an object
+     * and applies given conversion to it.
+     */
+    @NotNull
+    static MethodHandle objectReader(@NotNull TypeConversion conversion, int column) {
+        return MethodHandles.insertArguments(READ_OBJECT, 2, column).bindTo(conversion);
+    }
+
+    @Nullable
+    private static String primitiveReaderName(@NotNull Class<?> type) {
+        if (type == int.class) return "readInt";
+        if (type == long.class) return "readLong";
+        if (type == short.class) return "readShort";
+        if (type == byte.class) return "readByte";
+        if (type == double.class) return "readDouble";
+        if (type == float.class) return "readFloat";
+        if (type == boolean.class) return "readBoolean";
+        return null;
+    }
+
+    @NotNull
+    private static MethodHandle findReader(@NotNull String name, @NotNull MethodType type) {
+        try {
+            return lookup.findStatic(ColumnReaders.class, name, type);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static Object readObject(@NotNull TypeConversion conversion, @NotNull ResultSet rs, int column) throws SQLException {
+        return conversion.convert(rs.getObject(column));
+    }
+
+    private static int readInt(@NotNull ResultSet rs, int column) throws SQLException {
+        int value = rs.getInt(column);
+        if (value == 0 && rs.wasNull()) throw nullForPrimitive(column, int.class);
+        return value;
+    }
+
+    private static long readLong(@NotNull ResultSet rs, int column) throws SQLException {
+        long value = rs.getLong(column);
+        if (value == 0 && rs.wasNull()) throw nullForPrimitive(column, long.class);
+        return value;
+    }
+
+    private static short readShort(@NotNull ResultSet rs, int column) throws SQLException {
+        short value = rs.getShort(column);
+        if (value == 0 && rs.wasNull()) throw nullForPrimitive(column, short.class);
+        return value;
+    }
+
+    private static byte readByte(@NotNull ResultSet rs, int column) throws SQLException {
+        byte value = rs.getByte(column);
+        if (value == 0 && rs.wasNull()) throw nullForPrimitive(column, byte.class);
+        return value;
+    }
+
+    private static double readDouble(@NotNull ResultSet rs, int column) throws SQLException {
+        double value = rs.getDouble(column);
+        if (value == 0 && rs.wasNull()) throw nullForPrimitive(column, double.class);
+        return value;
+    }
+
+    private static float readFloat(@NotNull ResultSet rs, int column) throws SQLException {
+        float value = rs.getFloat(column);
+        if (value == 0 && rs.wasNull()) throw nullForPrimitive(column, float.class);
+        return value;
+    }
+
+    private static boolean readBoolean(@NotNull ResultSet rs, int column) throws SQLException {
+        boolean value = rs.getBoolean(column);
+        if (!value && rs.wasNull()) throw nullForPrimitive(column, boolean.class);
+        return value;
+    }
+
+    @NotNull
+    private static InstantiationFailureException nullForPrimitive(int column, @NotNull Class<?> type) {
+        return new InstantiationFailureException("Column " + column + " is null, but it's mapped to primitive " + type.getName());
+    }
+}
@@ -22,6 +22,7 @@
 
 package org.dalesbred.internal.instantiation;
 
+import org.dalesbred.internal.utils.BoundedCache;
 import org.jetbrains.annotations.NotNull;
 
 import java.lang.reflect.Type;
@@ -36,12 +37,27 @@ final class ConversionMap {
     @NotNull
     private final Map<Type, List<ConversionRegistration>> mappings = new HashMap<>();
 
+    /**
+     * Results of previous lookups, including failed ones. Walking the type hierarchy is needed
+     * only on first lookup of each pair of types. Cleared whenever new conversions are registered.
+     */
+    @NotNull
+    private final BoundedCache<ConversionKey, Optional<TypeConversion>> lookupCache = new BoundedCache<>(MAX_CACHED_LOOKUPS);
+
+    private static final int MAX_CACHED_LOOKUPS = 1000;
+
     void register(@NotNull Type source, @NotNull Type target, @NotNull TypeConversion conversion) {
         mappings.computeIfAbsent(wrap(source), a -> new ArrayList<>()).add(new ConversionRegistration(target, conversion));
+        lookupCache.clear();
     }
 
     @NotNull
     Optional<TypeConversion> findConversion(@NotNull Type source, @NotNull Type target) {
+        return lookupCache.computeIfAbsent(new ConversionKey(source, target), key -> resolveConversion(source, target));
+    }
+
+    @NotNull
+    private Optional<TypeConversion> resolveConversion(@NotNull Type source, @NotNull Type target) {
         for (Type cl = wrap(source); cl != null; cl = genericSuperClass(cl)) {
             Optional<TypeConversion> conversion = findConversionsRegisteredFor(cl, target);
             if (conversion.isPresent())
@@ -70,6 +86,45 @@ final class ConversionMap {
         return Optional.empty();
     }
 
+    @NotNull
+    BoundedCache<?, ?> getLookupCache() {
+        return lookupCache;
+    }
+
+    private static final class ConversionKey {
+
+        @NotNull
+        private final Type source;
+
+        @NotNull
+        private final Type target;
+
+        private final int hash;
+
+        ConversionKey(@NotNull Type source, @NotNull Type target) {
+            this.source = source;
+            this.target = target;
+            this.hash = 31 * source.hashCode() + target.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+
+            if (obj instanceof ConversionKey) {
+                ConversionKey rhs = (ConversionKey) obj;
+                return hash == rhs.hash && source.equals(rhs.source) && target.equals(rhs.target);
+            }
+
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
     private static final class ConversionRegistration {
 
         @NotNull
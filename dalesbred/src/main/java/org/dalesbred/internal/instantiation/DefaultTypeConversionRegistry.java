@@ -32,6 +32,8 @@ import java.lang.reflect.Type;
 import java.util.Optional;
 import java.util.function.Function;
 
+import static java.util.Objects.requireNonNull;
+
 /**
  * The used implementation of TypeConversionRegistry.
  */
@@ -40,14 +42,24 @@ final class DefaultTypeConversionRegistry implements TypeConversionRegistry {
     @NotNull
     private final Dialect dialect;
 
+    @NotNull
+    private final Runnable registrationListener;
+
     @NotNull
     private final ConversionMap loadConversions = new ConversionMap();
 
     @NotNull
     private final ConversionMap storeConversions = new ConversionMap();
 
-    public DefaultTypeConversionRegistry(@NotNull Dialect dialect) {
+    /**
+     * Constructs a new registry for given dialect.
+     *
+     * @param registrationListener callback invoked after each new registration so that caches derived
+     *                             from the registered conversions can be invalidated
+     */
+    public DefaultTypeConversionRegistry(@NotNull Dialect dialect, @NotNull Runnable registrationListener) {
         this.dialect = dialect;
+        this.registrationListener = requireNonNull(registrationListener);
     }
 
     @SuppressWarnings("unchecked")
@@ -76,10 +88,12 @@ final class DefaultTypeConversionRegistry implements TypeConversionRegistry {
     @Override
     public <S, T> void registerConversionFromDatabase(@NotNull Class<S> source, @NotNull Class<T> target, @NotNull Function<S, T> conversion) {
         loadConversions.register(source, target, TypeConversion.fromNonNullFunction(conversion));
+        registrationListener.run();
     }
 
     @Override
     public <S> void registerConversionToDatabase(@NotNull Class<S> source, @NotNull Function<S, ?> conversion) {
         storeConversions.register(source, Object.class, TypeConversion.fromNonNullFunction(conversion));
+        registrationListener.run();
     }
 }
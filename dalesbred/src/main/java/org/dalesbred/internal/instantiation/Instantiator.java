@@ -22,9 +22,12 @@
 
 package org.dalesbred.internal.instantiation;
 
+import org.dalesbred.result.RowMapper;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Optional;
+
 /**
  * Factory for producing objects from given arguments.
  */
@@ -32,4 +35,15 @@ import org.jetbrains.annotations.Nullable;
 public interface Instantiator<T> {
     @Nullable
     T instantiate(@NotNull InstantiatorArguments arguments);
+
+    /**
+     * Returns a row mapper that reads the arguments directly from consecutive columns of the result set,
+     * starting from given column. The columns must have the types this instantiator was resolved for.
+     * Instantiators that can read columns with typed getters return a mapper that avoids boxing the
+     * values. Otherwise returns empty and caller should read the values and call {@link #instantiate}.
+     */
+    @NotNull
+    default Optional<RowMapper<T>> getRowMapper(int firstColumn) {
+        return Optional.empty();
+    }
 }
@@ -28,6 +28,9 @@ import org.dalesbred.conversion.TypeConversionRegistry;
 import org.dalesbred.dialect.Dialect;
 import org.dalesbred.integration.joda.JodaTypeConversions;
 import org.dalesbred.integration.threeten.ThreeTenTypeConversions;
+import org.dalesbred.internal.jdbc.ArgumentBinder;
+import org.dalesbred.internal.jdbc.ParameterBinder;
+import org.dalesbred.internal.utils.BoundedCache;
 import org.dalesbred.internal.utils.OptionalUtils;
 import org.dalesbred.internal.utils.ReflectionUtils;
 import org.jetbrains.annotations.NotNull;
@@ -38,6 +41,8 @@ import org.slf4j.LoggerFactory;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Type;
 import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -61,12 +66,40 @@ public final class InstantiatorProvider {
     @NotNull
     private final DefaultTypeConversionRegistry typeConversionRegistry;
 
+    /**
+     * Resolved instantiators keyed by target type and the names and types of the source values.
+     * Resolving an instantiator is costly, while the same combination is typically requested over
+     * and over again by the same queries. Cleared whenever new type conversions are registered.
+     */
+    @NotNull
+    private final BoundedCache<InstantiatorKey, Instantiator<?>> instantiatorCache = new BoundedCache<>(MAX_CACHED_INSTANTIATORS);
+
+    private static final int MAX_CACHED_INSTANTIATORS = 1000;
+
+    /**
+     * Binders for arguments keyed by their runtime class. Each binder performs the conversion to
+     * database value and calls the appropriate JDBC setter without any further lookups.
+     * Cleared whenever new type conversions are registered.
+     */
+    @NotNull
+    private final BoundedCache<Class<?>, ParameterBinder> argumentBinderCache = new BoundedCache<>(MAX_CACHED_ARGUMENT_BINDERS);
+
+    private static final int MAX_CACHED_ARGUMENT_BINDERS = 1000;
+
+    /** Does the dialect customize {@link Dialect#valueToDatabase(Object)}? */
+    private final boolean dialectConvertsValues;
+
+    /** Does the dialect customize {@link Dialect#bindArgument(PreparedStatement, int, Object)}? */
+    private final boolean dialectBindsArguments;
+
     @NotNull
     private static final Logger log = LoggerFactory.getLogger(InstantiatorProvider.class);
 
     public InstantiatorProvider(@NotNull Dialect dialect) {
         this.dialect = requireNonNull(dialect);
-        this.typeConversionRegistry = new DefaultTypeConversionRegistry(dialect);
+        this.typeConversionRegistry = new DefaultTypeConversionRegistry(dialect, this::conversionsChanged);
+        this.dialectConvertsValues = overridesDialectMethod(dialect, "valueToDatabase", Object.class);
+        this.dialectBindsArguments = overridesDialectMethod(dialect, "bindArgument", PreparedStatement.class, int.class, Object.class);
 
         DefaultTypeConversions.register(typeConversionRegistry);
 
@@ -94,6 +127,45 @@ public final class InstantiatorProvider {
             return dialect.valueToDatabase(value);
     }
 
+    /**
+     * Converts given value to database representation and binds it to given statement. Equivalent
+     * to binding {@link #valueToDatabase(Object)} using the dialect, but resolves the conversion
+     * and the JDBC setter only once for each type of value.
+     */
+    public void bindArgument(@NotNull PreparedStatement ps, int index, @Nullable Object value) throws SQLException {
+        if (value == null)
+            dialect.bindArgument(ps, index, null);
+        else
+            argumentBinderCache.computeIfAbsent(value.getClass(), this::resolveArgumentBinder).bind(ps, index, value);
+    }
+
+    @NotNull
+    private ParameterBinder resolveArgumentBinder(@NotNull Class<?> type) {
+        // If the database value could be anything, or if the dialect wants to bind arguments itself,
+        // there is nothing to resolve beforehand. Just use the generic path.
+        TypeConversion conversion = typeConversionRegistry.findConversionToDb(type).orElse(null);
+        if (conversion != null || dialectConvertsValues || dialectBindsArguments)
+            return (ps, index, value) -> dialect.bindArgument(ps, index, valueToDatabase(value));
+
+        if (Enum.class.isAssignableFrom(type))
+            return (ps, index, value) -> ps.setString(index, ((Enum<?>) value).name());
+
+        return ArgumentBinder.findBinder(type);
+    }
+
+    private void conversionsChanged() {
+        instantiatorCache.clear();
+        argumentBinderCache.clear();
+    }
+
+    private static boolean overridesDialectMethod(@NotNull Dialect dialect, @NotNull String name, @NotNull Class<?>... parameterTypes) {
+        try {
+            return dialect.getClass().getMethod(name, parameterTypes).getDeclaringClass() != Dialect.class;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("could not find method " + name + " of Dialect", e);
+        }
+    }
+
     @NotNull
     @SuppressWarnings("unchecked")
     public <T> Instantiator<T> findInstantiator(@NotNull Class<T> type, @NotNull NamedTypeList types) {
@@ -102,6 +174,11 @@ public final class InstantiatorProvider {
 
     @NotNull
     public Instantiator<?> findInstantiator(@NotNull Type type, @NotNull NamedTypeList types) {
+        return instantiatorCache.computeIfAbsent(new InstantiatorKey(type, types), key -> resolveInstantiator(type, types));
+    }
+
+    @NotNull
+    private Instantiator<?> resolveInstantiator(@NotNull Type type, @NotNull NamedTypeList types) {
         // First check if we have an immediate conversion registered. If so, we'll just use that.
         if (types.size() == 1) {
             TypeConversion conversion = findConversionFromDbValue(types.getType(0), type).orElse(null);
@@ -145,8 +222,8 @@ public final class InstantiatorProvider {
             throw new InstantiationFailureException(String.format("Cannot instantiate %s, constructor takes %d arguments, but result set has %d",
                     constructor.getDeclaringClass().getName(), constructorParameterTypes.size(), columnNames.size()));
 
-        ReflectionInstantiator<?> instantiator = resolveConversions(types, constructorParameterTypes)
-                .map(conversions -> new ReflectionInstantiator<>(constructor, conversions, Collections.emptyList()))
+        Instantiator<?> instantiator = resolveConversions(types, constructorParameterTypes)
+                .map(conversions -> createInstantiator(constructor, conversions, Collections.emptyList(), types))
                 .orElseThrow(() -> new InstantiationFailureException("could not find a way to instantiate " + constructor.getDeclaringClass().getName() + " with parameters " + types));
 
         return Optional.of(instantiator);
@@ -164,7 +241,24 @@ public final class InstantiatorProvider {
         List<String> columnNames = types.getNames();
         return findTargetTypes(constructor, columnNames)
                 .flatMap(targetTypes -> resolveConversions(types, targetTypes)
-                        .map(conversions -> new ReflectionInstantiator<>(constructor, conversions, createPropertyAccessorsForValuesNotCoveredByConstructor(constructor, columnNames))));
+                        .map(conversions -> createInstantiator(constructor, conversions, createPropertyAccessorsForValuesNotCoveredByConstructor(constructor, columnNames), types)));
+    }
+
+    /**
+     * Creates an instantiator using method handles if possible. If access to the members is denied,
+     * falls back to using reflection.
+     */
+    @NotNull
+    private static <T> Instantiator<T> createInstantiator(@NotNull Constructor<T> constructor,
+                                                          @NotNull List<TypeConversion> conversions,
+                                                          @NotNull List<PropertyAccessor> accessors,
+                                                          @NotNull NamedTypeList types) {
+        try {
+            return MethodHandleInstantiator.create(constructor, conversions, accessors, types);
+        } catch (IllegalAccessException e) {
+            log.debug("Could not create method handles for instantiating {}, falling back to reflection: {}", constructor.getDeclaringClass().getName(), e.toString());
+            return new ReflectionInstantiator<>(constructor, conversions, accessors);
+        }
     }
 
     @NotNull
@@ -365,4 +459,46 @@ public final class InstantiatorProvider {
     public TypeConversionRegistry getTypeConversionRegistry() {
         return typeConversionRegistry;
     }
+
+    /**
+     * Returns the cache of resolved instantiators, mainly for examining its statistics.
+     */
+    @NotNull
+    public BoundedCache<?, ?> getInstantiatorCache() {
+        return instantiatorCache;
+    }
+
+    private static final class InstantiatorKey {
+
+        @NotNull
+        private final Type type;
+
+        @NotNull
+        private final NamedTypeList types;
+
+        private final int hash;
+
+        InstantiatorKey(@NotNull Type type, @NotNull NamedTypeList types) {
+            this.type = type;
+            this.types = types;
+            this.hash = 31 * type.hashCode() + types.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+
+            if (obj instanceof InstantiatorKey) {
+                InstantiatorKey rhs = (InstantiatorKey) obj;
+                return hash == rhs.hash && type.equals(rhs.type) && types.equals(rhs.types);
+            }
+
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
 }
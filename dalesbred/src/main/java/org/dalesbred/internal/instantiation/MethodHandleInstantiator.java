@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.internal.instantiation;
+
+import org.dalesbred.internal.utils.Throwables;
+import org.dalesbred.result.RowMapper;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * An instantiator that uses method handles resolved up front for the constructor and for the
+ * setters or fields to instantiate an object. Unlike {@link ReflectionInstantiator}, this avoids
+ * reflective access checks and argument unwrapping when instantiating each object.
+ */
+final class MethodHandleInstantiator<T> implements Instantiator<T> {
+
+    /** Constructor adapted to type {@code (Object[])Object} */
+    @NotNull
+    private final MethodHandle constructor;
+
+    /** Setters adapted to type {@code (Object,Object)void} */
+    @NotNull
+    private final MethodHandle[] setters;
+
+    /** Constructor with its original parameter types */
+    @NotNull
+    private final MethodHandle typedConstructor;
+
+    /** Setters adapted to type {@code (Object,PropertyType)void} */
+    @NotNull
+    private final MethodHandle[] typedSetters;
+
+    @NotNull
+    private final TypeConversion[] conversions;
+
+    /** Types of the columns this instantiator was created for */
+    @NotNull
+    private final NamedTypeList types;
+
+    private final int constructorParameterCount;
+
+    /** Row mappers created by {@link #getRowMapper(int)}, keyed by the index of first column */
+    @NotNull
+    private final ConcurrentMap<Integer, Optional<RowMapper<T>>> rowMappers = new ConcurrentHashMap<>();
+
+    @NotNull
+    private static final MethodType SETTER_TYPE = methodType(void.class, Object.class, Object.class);
+
+    private MethodHandleInstantiator(@NotNull MethodHandle typedConstructor,
+                                     @NotNull MethodHandle[] typedSetters,
+                                     @NotNull TypeConversion[] conversions,
+                                     @NotNull NamedTypeList types) {
+        this.typedConstructor = typedConstructor;
+        this.typedSetters = typedSetters;
+        this.conversions = conversions;
+        this.types = types;
+        this.constructorParameterCount = typedConstructor.type().parameterCount();
+        this.constructor = typedConstructor
+                .asType(MethodType.genericMethodType(constructorParameterCount))
+                .asSpreader(Object[].class, constructorParameterCount);
+
+        this.setters = new MethodHandle[typedSetters.length];
+        for (int i = 0; i < setters.length; i++)
+            setters[i] = typedSetters[i].asType(SETTER_TYPE);
+    }
+
+    /**
+     * Creates a new instantiator for given constructor and accessors.
+     *
+     * @throws IllegalAccessException if we don't have access to the constructor or to any of the accessors
+     */
+    @NotNull
+    static <T> MethodHandleInstantiator<T> create(@NotNull Constructor<T> constructor,
+                                                  @NotNull List<TypeConversion> conversions,
+                                                  @NotNull List<PropertyAccessor> accessors,
+                                                  @NotNull NamedTypeList types) throws IllegalAccessException {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        MethodHandle constructorHandle = lookup.unreflectConstructor(constructor).asFixedArity();
+
+        MethodHandle[] setters = new MethodHandle[accessors.size()];
+        for (int i = 0; i < setters.length; i++) {
+            MethodHandle setter = accessors.get(i).createSetterHandle(lookup);
+            setters[i] = setter.asType(methodType(void.class, Object.class, setter.type().parameterType(1)));
+        }
+
+        return new MethodHandleInstantiator<>(constructorHandle, setters, conversions.toArray(new TypeConversion[conversions.size()]), types);
+    }
+
+    @Override
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public T instantiate(@NotNull InstantiatorArguments arguments) {
+        List<?> values = arguments.getValues();
+
+        try {
+            Object result = (Object) constructor.invokeExact(constructorArguments(values));
+
+            for (int i = 0; i < setters.length; i++) {
+                int argumentIndex = i + constructorParameterCount;
+                setters[i].invokeExact(result, conversions[argumentIndex].convert(values.get(argumentIndex)));
+            }
+
+            return (T) result;
+        } catch (Throwable e) {
+            throw Throwables.propagate(e);
+        }
+    }
+
+    @NotNull
+    @Override
+    public Optional<RowMapper<T>> getRowMapper(int firstColumn) {
+        return rowMappers.computeIfAbsent(firstColumn, this::createRowMapper);
+    }
+
+    /**
+     * Creates a row mapper that combines reading of the columns with the constructor and setters into
+     * single method handle. Primitive columns mapped to primitive parameters are read with typed getters
+     * and passed on without boxing. If there are no such columns, there's nothing to gain over normal
+     * instantiation and empty is returned.
+     */
+    @NotNull
+    private Optional<RowMapper<T>> createRowMapper(int firstColumn) {
+        boolean hasTypedReads = false;
+
+        MethodHandle[] constructorReaders = new MethodHandle[constructorParameterCount];
+        for (int i = 0; i < constructorReaders.length; i++) {
+            MethodHandle typedReader = findTypedReader(i, typedConstructor.type().parameterType(i), firstColumn);
+            hasTypedReads |= typedReader != null;
+            constructorReaders[i] = (typedReader != null) ? typedReader : objectReader(i, typedConstructor.type().parameterType(i), firstColumn);
+        }
+
+        MethodHandle[] setterReaders = new MethodHandle[typedSetters.length];
+        for (int i = 0; i < setterReaders.length; i++) {
+            int argumentIndex = i + constructorParameterCount;
+            Class<?> propertyType = typedSetters[i].type().parameterType(1);
+            MethodHandle typedReader = findTypedReader(argumentIndex, propertyType, firstColumn);
+            hasTypedReads |= typedReader != null;
+            MethodHandle reader = (typedReader != null) ? typedReader : objectReader(argumentIndex, propertyType, firstColumn);
+            setterReaders[i] = MethodHandles.filterArguments(typedSetters[i], 1, reader);
+        }
+
+        if (!hasTypedReads)
+            return Optional.empty();
+
+        // (ResultSet, ResultSet, ...)Object -> (ResultSet)Object
+        MethodHandle readingConstructor = MethodHandles.filterArguments(typedConstructor, 0, constructorReaders);
+        readingConstructor = readingConstructor.asType(readingConstructor.type().changeReturnType(Object.class));
+        readingConstructor = MethodHandles.permuteArguments(readingConstructor, methodType(Object.class, ResultSet.class), new int[constructorParameterCount]);
+
+        return Optional.of(new DirectRowMapper<>(readingConstructor, setterReaders));
+    }
+
+    private MethodHandle findTypedReader(int argumentIndex, @NotNull Class<?> targetType, int firstColumn) {
+        return ColumnReaders.findTypedReader(types.getType(argumentIndex), targetType, firstColumn + argumentIndex).orElse(null);
+    }
+
+    @NotNull
+    private MethodHandle objectReader(int argumentIndex, @NotNull Class<?> targetType, int firstColumn) {
+        return ColumnReaders.objectReader(conversions[argumentIndex], firstColumn + argumentIndex)
+                .asType(methodType(targetType, ResultSet.class));
+    }
+
+    @NotNull
+    private Object[] constructorArguments(@NotNull List<?> arguments) {
+        Object[] result = new Object[constructorParameterCount];
+
+        for (int i = 0; i < result.length; i++)
+            result[i] = conversions[i].convert(arguments.get(i));
+
+        return result;
+    }
+
+    private static final class DirectRowMapper<T> implements RowMapper<T> {
+
+        /** Constructor that reads its arguments, of type {@code (ResultSet)Object} */
+        @NotNull
+        private final MethodHandle constructor;
+
+        /** Setters that read their values, of type {@code (Object,ResultSet)void} */
+        @NotNull
+        private final MethodHandle[] setters;
+
+        DirectRowMapper(@NotNull MethodHandle constructor, @NotNull MethodHandle[] setters) {
+            this.constructor = constructor;
+            this.setters = setters;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T mapRow(@NotNull ResultSet resultSet) throws SQLException {
+            try {
+                Object result = (Object) constructor.invokeExact(resultSet);
+
+                for (MethodHandle setter : setters)
+                    setter.invokeExact(result, resultSet);
+
+                return (T) result;
+            } catch (SQLException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw Throwables.propagate(e);
+            }
+        }
+    }
+}
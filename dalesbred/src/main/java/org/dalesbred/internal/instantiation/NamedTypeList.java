@@ -72,6 +72,23 @@ public final class NamedTypeList {
         return new NamedTypeList(names.subList(fromIndex, toIndex), types.subList(fromIndex, toIndex));
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+
+        if (obj instanceof NamedTypeList) {
+            NamedTypeList rhs = (NamedTypeList) obj;
+            return names.equals(rhs.names) && types.equals(rhs.types);
+        }
+
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * names.hashCode() + types.hashCode();
+    }
+
     @Override
     @NotNull
     public String toString() {
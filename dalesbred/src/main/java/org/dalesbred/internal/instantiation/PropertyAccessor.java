@@ -27,6 +27,8 @@ import org.dalesbred.internal.utils.Throwables;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -34,6 +36,7 @@ import java.lang.reflect.Type;
 import java.util.Optional;
 import java.util.regex.Pattern;
 
+import static java.lang.invoke.MethodType.methodType;
 import static java.lang.reflect.Modifier.isPublic;
 import static org.dalesbred.internal.utils.StringUtils.isEqualIgnoringCaseAndUnderscores;
 
@@ -43,6 +46,14 @@ abstract class PropertyAccessor {
 
     abstract Type getType();
 
+    /**
+     * Returns a method handle of type {@code (Object,Object)void} that sets the property, like {@link #set(Object, Object)}.
+     *
+     * @throws IllegalAccessException if given lookup does not have access to the underlying member
+     */
+    @NotNull
+    abstract MethodHandle createSetterHandle(@NotNull MethodHandles.Lookup lookup) throws IllegalAccessException;
+
     @NotNull
     private static final Pattern PERIOD = Pattern.compile("\\.");
 
@@ -152,6 +163,12 @@ abstract class PropertyAccessor {
             return field.getGenericType();
         }
 
+        @NotNull
+        @Override
+        MethodHandle createSetterHandle(@NotNull MethodHandles.Lookup lookup) throws IllegalAccessException {
+            return lookup.unreflectSetter(field);
+        }
+
         @Override
         void set(Object object, Object value) {
             try {
@@ -176,6 +193,12 @@ abstract class PropertyAccessor {
             return setter.getGenericParameterTypes()[0];
         }
 
+        @NotNull
+        @Override
+        MethodHandle createSetterHandle(@NotNull MethodHandles.Lookup lookup) throws IllegalAccessException {
+            return lookup.unreflect(setter);
+        }
+
         @Override
         void set(Object object, Object value) {
             try {
@@ -208,6 +231,18 @@ abstract class PropertyAccessor {
             return accessor.getType();
         }
 
+        @NotNull
+        @Override
+        MethodHandle createSetterHandle(@NotNull MethodHandles.Lookup lookup) throws IllegalAccessException {
+            // Resolving the intermediate objects needs null-checks and nice error messages, so we'll
+            // just delegate to our reflective implementation instead of building a handle for the whole path.
+            try {
+                return MethodHandles.lookup().findVirtual(NestedPathAccessor.class, "set", methodType(void.class, Object.class, Object.class)).bindTo(this);
+            } catch (NoSuchMethodException e) {
+                throw new AssertionError(e);
+            }
+        }
+
         @Override
         void set(Object object, Object value) {
             accessor.set(resolveFinalObject(object), value);
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.internal.instrumentation;
+
+import org.dalesbred.instrumentation.QueryExecution;
+import org.dalesbred.instrumentation.QueryListener;
+import org.dalesbred.query.SqlQuery;
+import org.dalesbred.result.ResultTable;
+import org.dalesbred.transaction.TransactionContext;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+
+import static java.lang.System.nanoTime;
+
+/**
+ * Measures the phases of a single query execution and reports them to a {@link QueryListener}.
+ * <p>
+ * Each phase is measured from the end of the previous one. Phases marked several times, such as binding
+ * and executing the chunks of a batch, accumulate. The {@link #DISABLED} timer used when there's no listener
+ * does nothing, so measuring costs neither time nor allocation unless a listener is registered.
+ * <p>
+ * Exceptions thrown by the listener are logged and ignored, so that instrumentation never changes
+ * the outcome of the query.
+ */
+public final class QueryTimer {
+
+    /** Timer that does not measure anything */
+    @NotNull
+    public static final QueryTimer DISABLED = new QueryTimer(null, null, null);
+
+    @Nullable
+    private final QueryListener listener;
+
+    @Nullable
+    private final SqlQuery query;
+
+    @Nullable
+    private final TransactionContext transaction;
+
+    private long mark;
+
+    private long prepareNanos;
+
+    private long bindNanos;
+
+    private long executeNanos;
+
+    private long processNanos;
+
+    private boolean reported;
+
+    @NotNull
+    private static final Logger log = LoggerFactory.getLogger(QueryTimer.class);
+
+    private QueryTimer(@Nullable QueryListener listener, @Nullable SqlQuery query, @Nullable TransactionContext transaction) {
+        this.listener = listener;
+        this.query = query;
+        this.transaction = transaction;
+        this.mark = (listener != null) ? nanoTime() : 0;
+    }
+
+    /**
+     * Returns a timer that reports to given listener, or {@link #DISABLED} if the listener is null.
+     */
+    @NotNull
+    public static QueryTimer start(@Nullable QueryListener listener, @NotNull SqlQuery query, @NotNull TransactionContext transaction) {
+        return (listener != null) ? new QueryTimer(listener, query, transaction) : DISABLED;
+    }
+
+    public void prepared() {
+        if (listener != null)
+            prepareNanos += lap();
+    }
+
+    public void bound() {
+        if (listener != null)
+            bindNanos += lap();
+    }
+
+    public void executed() {
+        if (listener != null)
+            executeNanos += lap();
+    }
+
+    /**
+     * Marks the results as processed and reports a successful execution.
+     *
+     * @param rowCount the amount of returned or affected rows, or -1 if not known
+     */
+    public void completed(long rowCount) {
+        if (listener != null) {
+            processNanos += lap();
+            report(rowCount, null);
+        }
+    }
+
+    /**
+     * Marks the results as processed and reports a successful execution, deriving the amount of rows from
+     * the processed result if it is a collection, map, array or {@link ResultTable}.
+     */
+    public void completedWithResult(@Nullable Object result) {
+        if (listener != null)
+            completed(rowCountOf(result));
+    }
+
+    /**
+     * Reports a failed execution, unless the execution was already reported.
+     */
+    public void failed(@NotNull Throwable failure) {
+        if (listener != null)
+            report(-1, failure);
+    }
+
+    /**
+     * Returns the nanoseconds elapsed since the timer was started, or 0 for a disabled timer.
+     */
+    public long getElapsedNanos() {
+        return (listener != null) ? (prepareNanos + bindNanos + executeNanos + processNanos + (nanoTime() - mark)) : 0;
+    }
+
+    private long lap() {
+        long now = nanoTime();
+        long elapsed = now - mark;
+        mark = now;
+        return elapsed;
+    }
+
+    private void report(long rowCount, @Nullable Throwable failure) {
+        if (reported) return;
+
+        reported = true;
+        assert listener != null && query != null && transaction != null;
+        try {
+            listener.queryExecuted(new QueryExecution(query, prepareNanos, bindNanos, executeNanos, processNanos, rowCount,
+                                                      transaction.getElapsedNanos(), failure));
+        } catch (RuntimeException e) {
+            log.warn("ignored exception thrown by query listener: " + e, e);
+        }
+    }
+
+    private static long rowCountOf(@Nullable Object result) {
+        if (result instanceof Collection<?>)
+            return ((Collection<?>) result).size();
+        else if (result instanceof Map<?, ?>)
+            return ((Map<?, ?>) result).size();
+        else if (result instanceof ResultTable)
+            return ((ResultTable) result).getRowCount();
+        else if (result != null && result.getClass().isArray())
+            return Array.getLength(result);
+        else
+            return -1;
+    }
+}
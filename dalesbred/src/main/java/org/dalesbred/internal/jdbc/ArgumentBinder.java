@@ -32,10 +32,8 @@ import org.w3c.dom.Document;
 import javax.xml.transform.dom.DOMResult;
 import java.io.InputStream;
 import java.io.Reader;
-import java.sql.Array;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
-import java.sql.SQLXML;
+import java.math.BigDecimal;
+import java.sql.*;
 
 public final class ArgumentBinder {
 
@@ -60,6 +58,50 @@ public final class ArgumentBinder {
         }
     }
 
+    /**
+     * Returns a binder for non-null values of given type. Common types are bound with their
+     * type-specific setters instead of {@link PreparedStatement#setObject(int, Object)}.
+     */
+    @NotNull
+    public static ParameterBinder findBinder(@NotNull Class<?> type) {
+        if (type == String.class)
+            return (ps, index, value) -> ps.setString(index, (String) value);
+        if (type == Integer.class)
+            return (ps, index, value) -> ps.setInt(index, (Integer) value);
+        if (type == Long.class)
+            return (ps, index, value) -> ps.setLong(index, (Long) value);
+        if (type == Short.class)
+            return (ps, index, value) -> ps.setShort(index, (Short) value);
+        if (type == Byte.class)
+            return (ps, index, value) -> ps.setByte(index, (Byte) value);
+        if (type == Boolean.class)
+            return (ps, index, value) -> ps.setBoolean(index, (Boolean) value);
+        if (type == Double.class)
+            return (ps, index, value) -> ps.setDouble(index, (Double) value);
+        if (type == Float.class)
+            return (ps, index, value) -> ps.setFloat(index, (Float) value);
+        if (type == BigDecimal.class)
+            return (ps, index, value) -> ps.setBigDecimal(index, (BigDecimal) value);
+        if (type == Timestamp.class)
+            return (ps, index, value) -> ps.setTimestamp(index, (Timestamp) value);
+        if (type == Date.class)
+            return (ps, index, value) -> ps.setDate(index, (Date) value);
+        if (type == Time.class)
+            return (ps, index, value) -> ps.setTime(index, (Time) value);
+        if (type == byte[].class)
+            return (ps, index, value) -> ps.setBytes(index, (byte[]) value);
+        if (InputStream.class.isAssignableFrom(type))
+            return (ps, index, value) -> bindInputStream(ps, index, (InputStream) value);
+        if (Reader.class.isAssignableFrom(type))
+            return (ps, index, value) -> bindReader(ps, index, (Reader) value);
+        if (Document.class.isAssignableFrom(type))
+            return (ps, index, value) -> bindXmlDocument(ps, index, (Document) value);
+        if (SqlArray.class.isAssignableFrom(type))
+            return (ps, index, value) -> bindArray(ps, index, (SqlArray) value);
+
+        return PreparedStatement::setObject;
+    }
+
     private static void bindInputStream(@NotNull PreparedStatement ps, int index, @NotNull InputStream stream) throws SQLException {
         // We check whether the InputStream is actually InputStreamWithSize, for two reasons:
         //   1) the database/driver can optimize the call better if it knows the size in advance
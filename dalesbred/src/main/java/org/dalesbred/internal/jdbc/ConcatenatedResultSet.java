@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.internal.jdbc;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link ResultSet} that returns the rows of several result sets with the same columns one after another.
+ * Supports forward-only reading: {@code next()} moves to the following result set when the current one is
+ * exhausted and all other methods are delegated to the current result set.
+ */
+public final class ConcatenatedResultSet implements InvocationHandler {
+
+    @NotNull
+    private final List<ResultSet> resultSets;
+
+    private int current = 0;
+
+    private ConcatenatedResultSet(@NotNull List<ResultSet> resultSets) {
+        this.resultSets = new ArrayList<>(resultSets);
+    }
+
+    /**
+     * Returns a result set containing the rows of given non-empty list of result sets.
+     */
+    @NotNull
+    public static ResultSet of(@NotNull List<ResultSet> resultSets) {
+        if (resultSets.isEmpty()) throw new IllegalArgumentException("no result sets");
+
+        if (resultSets.size() == 1)
+            return resultSets.get(0);
+
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[] { ResultSet.class }, new ConcatenatedResultSet(resultSets));
+    }
+
+    @Override
+    public Object invoke(Object proxy, @NotNull Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "next":
+                return next();
+            case "close":
+                close();
+                return null;
+            case "getMetaData":
+                return resultSets.get(0).getMetaData();
+            case "toString":
+                return "ConcatenatedResultSet " + resultSets;
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            default:
+                try {
+                    return method.invoke(resultSets.get(current), args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+        }
+    }
+
+    private boolean next() throws SQLException {
+        while (current < resultSets.size()) {
+            if (resultSets.get(current).next())
+                return true;
+
+            if (current == resultSets.size() - 1)
+                return false;
+
+            current++;
+        }
+        return false;
+    }
+
+    private void close() throws SQLException {
+        SQLException exception = null;
+        for (ResultSet resultSet : resultSets) {
+            try {
+                resultSet.close();
+            } catch (SQLException e) {
+                if (exception == null)
+                    exception = e;
+                else
+                    exception.addSuppressed(e);
+            }
+        }
+        if (exception != null)
+            throw exception;
+    }
+}
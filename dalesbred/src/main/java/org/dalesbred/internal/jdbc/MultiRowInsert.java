@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.internal.jdbc;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.Collections.emptyList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Rewrites statements of form {@code INSERT INTO ... VALUES (?, ?)} to insert several rows with
+ * a single execution: {@code INSERT INTO ... VALUES (?, ?), (?, ?), ...}.
+ */
+public final class MultiRowInsert {
+
+    private static final Pattern INSERT_PATTERN =
+            Pattern.compile("\\s*(insert\\s+into\\s+[^?]+?\\s+values)\\s*(\\(.*\\))\\s*", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    /** The part of the statement preceding the values, ending with {@code VALUES} */
+    @NotNull
+    private final String prefix;
+
+    /** The parenthesized values of a single row */
+    @NotNull
+    private final String row;
+
+    private final int parametersPerRow;
+
+    private MultiRowInsert(@NotNull String prefix, @NotNull String row, int parametersPerRow) {
+        this.prefix = requireNonNull(prefix);
+        this.row = requireNonNull(row);
+        this.parametersPerRow = parametersPerRow;
+    }
+
+    /**
+     * Returns a rewriter for given statement if it's a simple single-row insert with parameters.
+     * Statements with anything following the values, such as {@code RETURNING} or {@code ON CONFLICT},
+     * are not rewritten.
+     */
+    @NotNull
+    public static Optional<MultiRowInsert> parse(@NotNull String sql) {
+        Matcher matcher = INSERT_PATTERN.matcher(sql);
+        if (!matcher.matches())
+            return Optional.empty();
+
+        String row = matcher.group(2);
+        int parameters = countParametersOfSingleGroup(row);
+        if (parameters <= 0)
+            return Optional.empty();
+
+        return Optional.of(new MultiRowInsert(matcher.group(1), row, parameters));
+    }
+
+    /**
+     * Returns the number of parameters in given parenthesized group, or -1 if the text consists of
+     * more than one group or contains unbalanced parenthesis or quotes.
+     */
+    private static int countParametersOfSingleGroup(@NotNull String group) {
+        int depth = 0;
+        int parameters = 0;
+        char quote = 0;
+
+        for (int i = 0, length = group.length(); i < length; i++) {
+            char c = group.charAt(i);
+
+            if (quote != 0) {
+                if (c == quote)
+                    quote = 0;
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+                if (depth == 0 && i != length - 1)
+                    return -1;
+            } else if (c == '?') {
+                parameters++;
+            }
+        }
+
+        return (depth == 0 && quote == 0) ? parameters : -1;
+    }
+
+    public int getParametersPerRow() {
+        return parametersPerRow;
+    }
+
+    /**
+     * Returns the statement for inserting given amount of rows.
+     */
+    @NotNull
+    public String sql(int rows) {
+        StringBuilder sb = new StringBuilder(prefix.length() + rows * (row.length() + 2) + 1);
+        sb.append(prefix).append(' ');
+        for (int i = 0; i < rows; i++) {
+            if (i != 0)
+                sb.append(", ");
+            sb.append(row);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns an iterator that combines the argument lists of consecutive rows into argument lists
+     * for inserting {@code width} rows at a time. The rows left over at the end are available from
+     * {@link RowGroups#getRemainder()} after iteration.
+     */
+    @NotNull
+    public RowGroups groups(@NotNull Iterator<? extends List<?>> rows, int width) {
+        return new RowGroups(rows, width, parametersPerRow);
+    }
+
+    public static final class RowGroups implements Iterator<List<?>> {
+
+        @NotNull
+        private final Iterator<? extends List<?>> rows;
+
+        private final int width;
+
+        private final int parametersPerRow;
+
+        @Nullable
+        private List<List<?>> next;
+
+        @NotNull
+        private List<List<?>> remainder = emptyList();
+
+        private RowGroups(@NotNull Iterator<? extends List<?>> rows, int width, int parametersPerRow) {
+            this.rows = requireNonNull(rows);
+            this.width = width;
+            this.parametersPerRow = parametersPerRow;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && rows.hasNext()) {
+                List<List<?>> group = new ArrayList<>(width);
+                while (group.size() < width && rows.hasNext()) {
+                    List<?> row = rows.next();
+                    if (row.size() != parametersPerRow)
+                        throw new IllegalArgumentException("expected " + parametersPerRow + " arguments, but got " + row.size());
+                    group.add(row);
+                }
+
+                if (group.size() == width)
+                    next = group;
+                else
+                    remainder = group;
+            }
+            return next != null;
+        }
+
+        @NotNull
+        @Override
+        public List<?> next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            List<Object> arguments = new ArrayList<>(width * parametersPerRow);
+            for (List<?> row : next)
+                arguments.addAll(row);
+            next = null;
+            return arguments;
+        }
+
+        /**
+         * Returns the rows that did not fill a complete group. Valid after {@link #hasNext()} has returned false.
+         */
+        @NotNull
+        public List<List<?>> getRemainder() {
+            return remainder;
+        }
+    }
+}
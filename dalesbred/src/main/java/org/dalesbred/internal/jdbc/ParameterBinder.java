@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015 Evident Solutions Oy
+ * Copyright (c) 2016 Evident Solutions Oy
  *
  * Permission is hereby granted, free of charge, to any person obtaining a copy
  * of this software and associated documentation files (the "Software"), to deal
@@ -20,23 +20,18 @@
  * THE SOFTWARE.
  */
 
-package org.dalesbred;
+package org.dalesbred.internal.jdbc;
 
-import org.dalesbred.query.SqlQuery;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-final class DebugContext {
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 
-    private static final ThreadLocal<SqlQuery> currentQuery = new ThreadLocal<>();
-
-    private DebugContext() { }
-
-    @Nullable
-    static SqlQuery getCurrentQuery() {
-        return currentQuery.get();
-    }
-
-    static void setCurrentQuery(@Nullable SqlQuery query) {
-        currentQuery.set(query);
-    }
+/**
+ * Binds a value of a known type to a parameter of {@link PreparedStatement}.
+ */
+@FunctionalInterface
+public interface ParameterBinder {
+    void bind(@NotNull PreparedStatement ps, int index, @Nullable Object value) throws SQLException;
 }
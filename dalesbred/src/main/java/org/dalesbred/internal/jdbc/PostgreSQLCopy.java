@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.internal.jdbc;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyOperation;
+import org.postgresql.copy.CopyOut;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Support for PostgreSQL's {@code COPY} protocol. The data is streamed in the text format, encoded as UTF-8,
+ * which is the client encoding used by the PostgreSQL JDBC driver.
+ */
+public final class PostgreSQLCopy {
+
+    /** Amount of characters buffered before they are sent to the database */
+    private static final int BUFFER_SIZE = 32 * 1024;
+
+    private PostgreSQLCopy() { }
+
+    /**
+     * Executes a {@code COPY ... FROM STDIN} statement, sending given rows to the database.
+     *
+     * @param valueToDatabase converts the values of the rows to their database representation
+     * @return the number of rows copied
+     */
+    public static long copyIn(@NotNull Connection connection,
+                              @NotNull String sql,
+                              @NotNull Iterator<? extends List<?>> rows,
+                              @NotNull Function<Object, Object> valueToDatabase) throws SQLException {
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+        Throwable failure = null;
+        try {
+            StringBuilder sb = new StringBuilder(BUFFER_SIZE + 1024);
+            List<Object> values = new ArrayList<>();
+
+            while (rows.hasNext()) {
+                values.clear();
+                for (Object value : rows.next())
+                    values.add(valueToDatabase.apply(value));
+
+                PostgreSQLCopyFormat.appendRow(sb, values);
+
+                if (sb.length() >= BUFFER_SIZE)
+                    write(copyIn, sb);
+            }
+
+            write(copyIn, sb);
+            return copyIn.endCopy();
+
+        } catch (SQLException | RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (copyIn.isActive())
+                cancel(copyIn, failure);
+        }
+    }
+
+    private static void write(@NotNull CopyIn copyIn, @NotNull StringBuilder sb) throws SQLException {
+        if (sb.length() != 0) {
+            byte[] bytes = sb.toString().getBytes(UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            sb.setLength(0);
+        }
+    }
+
+    /**
+     * Executes a {@code COPY ... TO STDOUT} statement, passing each row received from the database to
+     * given consumer as a list of column values in text format. Null values are passed as null.
+     *
+     * @return the number of rows copied
+     */
+    public static long copyOut(@NotNull Connection connection,
+                               @NotNull String sql,
+                               @NotNull Consumer<? super List<String>> rowConsumer) throws SQLException {
+        CopyOut copyOut = connection.unwrap(PGConnection.class).getCopyAPI().copyOut(sql);
+        Throwable failure = null;
+        try {
+            byte[] data;
+            while ((data = copyOut.readFromCopy()) != null)
+                rowConsumer.accept(PostgreSQLCopyFormat.parseRow(new String(data, UTF_8)));
+
+            return copyOut.getHandledRowCount();
+
+        } catch (SQLException | RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (copyOut.isActive())
+                cancel(copyOut, failure);
+        }
+    }
+
+    /**
+     * Cancels an unfinished copy. If the copy has already failed, failure to cancel it is added as
+     * a suppressed exception of the original failure instead of replacing it.
+     */
+    private static void cancel(@NotNull CopyOperation copy, @Nullable Throwable failure) throws SQLException {
+        try {
+            copy.cancelCopy();
+        } catch (SQLException e) {
+            if (failure == null)
+                throw e;
+            failure.addSuppressed(e);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.internal.jdbc;
+
+import org.dalesbred.datatype.SqlArray;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Array;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static java.time.format.DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+
+/**
+ * Encodes and decodes rows in the text format of PostgreSQL's {@code COPY} command: columns are separated
+ * by tabs, rows end with a newline, nulls are written as {@code \N} and special characters are escaped
+ * with backslashes.
+ */
+final class PostgreSQLCopyFormat {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private PostgreSQLCopyFormat() { }
+
+    /**
+     * Appends a row consisting of given database values to the buffer.
+     *
+     * @throws IllegalArgumentException if a value has no text representation that {@code COPY} could parse
+     */
+    static void appendRow(@NotNull StringBuilder sb, @NotNull List<?> values) {
+        for (int i = 0; i < values.size(); i++) {
+            if (i != 0)
+                sb.append('\t');
+            appendValue(sb, values.get(i));
+        }
+        sb.append('\n');
+    }
+
+    private static void appendValue(@NotNull StringBuilder sb, @Nullable Object value) {
+        if (value == null) {
+            sb.append("\\N");
+
+        } else if (value instanceof Boolean) {
+            sb.append((Boolean) value ? 't' : 'f');
+
+        } else if (value instanceof byte[]) {
+            // bytea in hex format, with the leading backslash escaped
+            sb.append("\\\\x");
+            for (byte b : (byte[]) value)
+                sb.append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+
+        } else if (value instanceof java.sql.Date) {
+            sb.append(((java.sql.Date) value).toLocalDate());
+
+        } else if (value instanceof Time) {
+            sb.append(((Time) value).toLocalTime());
+
+        } else if (value instanceof Date) {
+            // Timestamps with the offset of the JVM, like the JDBC driver binds them, so that timestamptz
+            // columns don't depend on the time zone of the session. Plain timestamps ignore the offset.
+            Timestamp timestamp = (value instanceof Timestamp) ? (Timestamp) value : new Timestamp(((Date) value).getTime());
+            sb.append(ISO_OFFSET_DATE_TIME.format(OffsetDateTime.ofInstant(timestamp.toInstant(), ZoneId.systemDefault())));
+
+        } else if (value.getClass().isArray() || value instanceof Array || value instanceof SqlArray) {
+            throw new IllegalArgumentException("arrays are not supported by COPY, got value of " + value.getClass().getName());
+
+        } else {
+            appendEscaped(sb, value.toString());
+        }
+    }
+
+    private static void appendEscaped(@NotNull StringBuilder sb, @NotNull String value) {
+        for (int i = 0, length = value.length(); i < length; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default: sb.append(c);
+            }
+        }
+    }
+
+    /**
+     * Parses a single row, with or without the terminating newline, into a list of column values.
+     * Nulls are represented as null.
+     */
+    @NotNull
+    static List<String> parseRow(@NotNull String row) {
+        int length = row.endsWith("\n") ? row.length() - 1 : row.length();
+
+        List<String> result = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        int columnStart = 0;
+
+        for (int i = 0; i < length; i++) {
+            char c = row.charAt(i);
+            if (c == '\t') {
+                result.add(columnValue(sb, row, columnStart, i));
+                sb.setLength(0);
+                columnStart = i + 1;
+
+            } else if (c == '\\' && i + 1 < length) {
+                i = appendUnescaped(sb, row, i + 1, length);
+
+            } else {
+                sb.append(c);
+            }
+        }
+
+        result.add(columnValue(sb, row, columnStart, length));
+        return result;
+    }
+
+    @Nullable
+    private static String columnValue(@NotNull StringBuilder sb, @NotNull String row, int start, int end) {
+        if (end - start == 2 && row.charAt(start) == '\\' && row.charAt(start + 1) == 'N')
+            return null;
+        return sb.toString();
+    }
+
+    /**
+     * Appends the character denoted by escape sequence starting at given index (just after the backslash)
+     * and returns the index of the last character of the sequence.
+     */
+    private static int appendUnescaped(@NotNull StringBuilder sb, @NotNull String row, int index, int length) {
+        char c = row.charAt(index);
+        switch (c) {
+            case 'b': sb.append('\b'); return index;
+            case 'f': sb.append('\f'); return index;
+            case 'n': sb.append('\n'); return index;
+            case 'r': sb.append('\r'); return index;
+            case 't': sb.append('\t'); return index;
+            case 'v': sb.append('\u000B'); return index;
+            case 'x': {
+                int end = index + 1;
+                while (end < length && end < index + 3 && Character.digit(row.charAt(end), 16) != -1)
+                    end++;
+                if (end == index + 1) {
+                    sb.append(c);
+                    return index;
+                }
+                sb.append((char) Integer.parseInt(row.substring(index + 1, end), 16));
+                return end - 1;
+            }
+            default:
+                if (c >= '0' && c <= '7') {
+                    int end = index + 1;
+                    while (end < length && end < index + 3 && row.charAt(end) >= '0' && row.charAt(end) <= '7')
+                        end++;
+                    sb.append((char) Integer.parseInt(row.substring(index, end), 8));
+                    return end - 1;
+                }
+                sb.append(c);
+                return index;
+        }
+    }
+}
@@ -26,7 +26,10 @@ import org.dalesbred.DatabaseException;
 import org.dalesbred.internal.instantiation.NamedTypeList;
 import org.jetbrains.annotations.NotNull;
 
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
 import java.lang.reflect.Type;
+import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 
@@ -58,4 +61,15 @@ public final class ResultSetUtils {
             throw new DatabaseException("Could not find class '" + className + "' specified by ResultSet.", e);
         }
     }
+
+    /**
+     * Reads the remaining rows of given result set into memory, so that they can be read after
+     * the original result set is closed.
+     */
+    @NotNull
+    public static ResultSet copyToMemory(@NotNull ResultSet resultSet) throws SQLException {
+        CachedRowSet copy = RowSetProvider.newFactory().createCachedRowSet();
+        copy.populate(resultSet);
+        return copy;
+    }
 }
@@ -24,14 +24,27 @@ package org.dalesbred.internal.jdbc;
 
 import org.jetbrains.annotations.NotNull;
 
-import java.sql.Array;
-import java.sql.SQLException;
-import java.sql.SQLFeatureNotSupportedException;
+import java.sql.*;
+import java.util.List;
 
 public final class SqlUtils {
 
     private SqlUtils() { }
 
+    /**
+     * Prepares a statement that returns generated keys from given columns. If no columns are given,
+     * the returned columns depend on the database.
+     */
+    @NotNull
+    public static PreparedStatement prepareStatementReturningGeneratedKeys(@NotNull Connection connection,
+                                                                           @NotNull String sql,
+                                                                           @NotNull List<String> columnNames) throws SQLException {
+        if (columnNames.isEmpty())
+            return connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+        else
+            return connection.prepareStatement(sql, columnNames.toArray(new String[columnNames.size()]));
+    }
+
     public static void freeArray(@NotNull Array array) throws SQLException {
         try {
             array.free();
@@ -48,6 +48,9 @@ public final class InstantiatorRowMapper<T> implements RowMapper<T> {
 
     private Instantiator<T> ctor;
 
+    // Mapper that reads the columns directly with typed getters, if the instantiator supports it
+    private RowMapper<T> directMapper;
+
     // For performance reasons we reuse the same arguments-array and InstantiatorArguments-object for all rows.
     // This should be fine as long as the instantiators don't hang on to their arguments for too long.
     private Object[] arguments;
@@ -64,16 +67,23 @@ public final class InstantiatorRowMapper<T> implements RowMapper<T> {
         if (types == null) {
             types = ResultSetUtils.getTypes(resultSet.getMetaData());
             ctor = instantiatorProvider.findInstantiator(cl, types);
+            directMapper = ctor.getRowMapper(1).orElse(null);
             arguments = new Object[types.size()];
             instantiatorArguments = new InstantiatorArguments(types, arguments);
         }
 
         boolean allowNulls = !cl.isPrimitive();
 
-        for (int i = 0; i < arguments.length; i++)
-            arguments[i] = resultSet.getObject(i+1);
+        T value;
+        if (directMapper != null) {
+            value = directMapper.mapRow(resultSet);
+        } else {
+            for (int i = 0; i < arguments.length; i++)
+                arguments[i] = resultSet.getObject(i+1);
+
+            value = ctor.instantiate(instantiatorArguments);
+        }
 
-        T value = ctor.instantiate(instantiatorArguments);
         if (value != null || allowNulls)
             return value;
         else
@@ -25,6 +25,7 @@ package org.dalesbred.internal.result;
 import org.dalesbred.internal.instantiation.*;
 import org.dalesbred.internal.jdbc.ResultSetUtils;
 import org.dalesbred.result.ResultSetProcessor;
+import org.dalesbred.result.RowMapper;
 import org.dalesbred.result.UnexpectedResultException;
 import org.jetbrains.annotations.NotNull;
 
@@ -69,6 +70,7 @@ public final class MapResultSetProcessor<K,V> implements ResultSetProcessor<Map<
         NamedTypeList valueTypes = types.subList(1, types.size());
         TypeConversion keyConversion = instantiatorRegistry.getConversionFromDbValue(types.getType(0), keyType);
         Instantiator<V> valueInstantiator = instantiatorRegistry.findInstantiator(valueType, valueTypes);
+        RowMapper<V> directValueMapper = valueInstantiator.getRowMapper(2).orElse(null);
 
         // For performance reasons we reuse the same arguments-array and InstantiatorArguments-object for all rows.
         // This should be fine as long as the instantiators don't hang on to their arguments for too long.
@@ -78,10 +80,15 @@ public final class MapResultSetProcessor<K,V> implements ResultSetProcessor<Map<
         while (resultSet.next()) {
             K key = keyType.cast(keyConversion.convert(resultSet.getObject(1)));
 
-            for (int i = 0; i < valueArguments.length; i++)
-                valueArguments[i] = resultSet.getObject(i+2);
+            V value;
+            if (directValueMapper != null) {
+                value = directValueMapper.mapRow(resultSet);
+            } else {
+                for (int i = 0; i < valueArguments.length; i++)
+                    valueArguments[i] = resultSet.getObject(i+2);
 
-            V value = valueInstantiator.instantiate(instantiatorArguments);
+                value = valueInstantiator.instantiate(instantiatorArguments);
+            }
 
             result.put(key, value);
         }
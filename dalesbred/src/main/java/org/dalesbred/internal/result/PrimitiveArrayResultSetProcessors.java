@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.internal.result;
+
+import org.dalesbred.result.ResultSetProcessor;
+import org.dalesbred.result.UnexpectedResultException;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Processors that read single-column results directly into primitive arrays, avoiding
+ * boxing of the values. The values are read using typed getters without any conversions.
+ */
+public final class PrimitiveArrayResultSetProcessors {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private PrimitiveArrayResultSetProcessors() { }
+
+    @NotNull
+    public static ResultSetProcessor<long[]> longs() {
+        return PrimitiveArrayResultSetProcessors::readLongs;
+    }
+
+    @NotNull
+    public static ResultSetProcessor<int[]> ints() {
+        return PrimitiveArrayResultSetProcessors::readInts;
+    }
+
+    @NotNull
+    public static ResultSetProcessor<double[]> doubles() {
+        return PrimitiveArrayResultSetProcessors::readDoubles;
+    }
+
+    @NotNull
+    private static long[] readLongs(@NotNull ResultSet resultSet) throws SQLException {
+        verifySingleColumn(resultSet);
+
+        long[] result = new long[INITIAL_CAPACITY];
+        int size = 0;
+
+        while (resultSet.next()) {
+            long value = resultSet.getLong(1);
+            if (value == 0 && resultSet.wasNull())
+                throw unexpectedNull(size);
+
+            if (size == result.length)
+                result = Arrays.copyOf(result, newCapacity(size));
+            result[size++] = value;
+        }
+
+        return Arrays.copyOf(result, size);
+    }
+
+    @NotNull
+    private static int[] readInts(@NotNull ResultSet resultSet) throws SQLException {
+        verifySingleColumn(resultSet);
+
+        int[] result = new int[INITIAL_CAPACITY];
+        int size = 0;
+
+        while (resultSet.next()) {
+            int value = resultSet.getInt(1);
+            if (value == 0 && resultSet.wasNull())
+                throw unexpectedNull(size);
+
+            if (size == result.length)
+                result = Arrays.copyOf(result, newCapacity(size));
+            result[size++] = value;
+        }
+
+        return Arrays.copyOf(result, size);
+    }
+
+    @NotNull
+    private static double[] readDoubles(@NotNull ResultSet resultSet) throws SQLException {
+        verifySingleColumn(resultSet);
+
+        double[] result = new double[INITIAL_CAPACITY];
+        int size = 0;
+
+        while (resultSet.next()) {
+            double value = resultSet.getDouble(1);
+            if (value == 0 && resultSet.wasNull())
+                throw unexpectedNull(size);
+
+            if (size == result.length)
+                result = Arrays.copyOf(result, newCapacity(size));
+            result[size++] = value;
+        }
+
+        return Arrays.copyOf(result, size);
+    }
+
+    private static int newCapacity(int size) {
+        if (size == Integer.MAX_VALUE)
+            throw new UnexpectedResultException("Too many rows to fit in an array");
+
+        return (int) Math.min((long) size * 2, Integer.MAX_VALUE);
+    }
+
+    private static void verifySingleColumn(@NotNull ResultSet resultSet) throws SQLException {
+        int columnCount = resultSet.getMetaData().getColumnCount();
+        if (columnCount != 1)
+            throw new UnexpectedResultException("Expected ResultSet with 1 column, but got " + columnCount + " columns.");
+    }
+
+    @NotNull
+    private static UnexpectedResultException unexpectedNull(int row) {
+        return new UnexpectedResultException("Expected non-null values, but row " + (row + 1) + " was null");
+    }
+}
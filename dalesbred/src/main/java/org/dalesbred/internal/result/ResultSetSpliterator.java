@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.internal.result;
+
+import org.dalesbred.DatabaseException;
+import org.dalesbred.result.RowMapper;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Spliterator that lazily maps the rows of a {@link ResultSet} as they are requested.
+ * Calls {@code onExhausted} when there are no more rows or when reading the rows fails.
+ * {@link DatabaseException}s thrown while reading or mapping the rows are passed to {@code onFailure}
+ * before they are thrown, so that they can be associated with the query.
+ */
+public final class ResultSetSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+    @NotNull
+    private final ResultSet resultSet;
+
+    @NotNull
+    private final RowMapper<? extends T> rowMapper;
+
+    @NotNull
+    private final Function<SQLException, ? extends RuntimeException> exceptionConverter;
+
+    @NotNull
+    private final Consumer<? super DatabaseException> onFailure;
+
+    @NotNull
+    private final Runnable onExhausted;
+
+    private boolean exhausted = false;
+
+    public ResultSetSpliterator(@NotNull ResultSet resultSet,
+                                @NotNull RowMapper<? extends T> rowMapper,
+                                @NotNull Function<SQLException, ? extends RuntimeException> exceptionConverter,
+                                @NotNull Consumer<? super DatabaseException> onFailure,
+                                @NotNull Runnable onExhausted) {
+        super(Long.MAX_VALUE, ORDERED);
+        this.resultSet = requireNonNull(resultSet);
+        this.rowMapper = requireNonNull(rowMapper);
+        this.exceptionConverter = requireNonNull(exceptionConverter);
+        this.onFailure = requireNonNull(onFailure);
+        this.onExhausted = requireNonNull(onExhausted);
+    }
+
+    @Override
+    public boolean tryAdvance(@NotNull Consumer<? super T> action) {
+        if (exhausted)
+            return false;
+
+        T row;
+        try {
+            if (!resultSet.next()) {
+                exhaust();
+                return false;
+            }
+            row = rowMapper.mapRow(resultSet);
+        } catch (SQLException e) {
+            throw failed(exceptionConverter.apply(e));
+        } catch (RuntimeException e) {
+            throw failed(e);
+        } catch (Error e) {
+            exhaust();
+            throw e;
+        }
+
+        try {
+            action.accept(row);
+            return true;
+        } catch (RuntimeException | Error e) {
+            exhaust();
+            throw e;
+        }
+    }
+
+    @NotNull
+    private RuntimeException failed(@NotNull RuntimeException e) {
+        if (e instanceof DatabaseException)
+            onFailure.accept((DatabaseException) e);
+        exhaust();
+        return e;
+    }
+
+    private void exhaust() {
+        exhausted = true;
+        onExhausted.run();
+    }
+}
@@ -30,6 +30,7 @@ import org.jetbrains.annotations.NotNull;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.List;
 
 import static java.util.Arrays.asList;
 import static org.dalesbred.internal.jdbc.ResultSetUtils.getColumnType;
@@ -39,13 +40,40 @@ import static org.dalesbred.internal.jdbc.ResultSetUtils.getColumnType;
  */
 public final class ResultTableResultSetProcessor implements ResultSetProcessor<ResultTable> {
 
+    private final boolean columnar;
+
+    /**
+     * Creates a processor that produces row-based tables.
+     */
+    public ResultTableResultSetProcessor() {
+        this(false);
+    }
+
+    /**
+     * Creates a processor that produces either columnar or row-based tables.
+     *
+     * @see ResultTable#columnarBuilder(List)
+     */
+    public ResultTableResultSetProcessor(boolean columnar) {
+        this.columnar = columnar;
+    }
+
     @NotNull
     @Override
     public ResultTable process(@NotNull ResultSet resultSet) throws SQLException {
         ResultSetMetaData metaData = resultSet.getMetaData();
+
+        if (columnar) {
+            ResultTable.ColumnarBuilder builder = ResultTable.columnarBuilder(createColumnMetadata(metaData));
+            while (resultSet.next())
+                builder.addRow(resultSet);
+
+            return builder.build();
+        }
+
         int columnCount = metaData.getColumnCount();
 
-        ResultTable.Builder builder = createBuilder(metaData);
+        ResultTable.Builder builder = ResultTable.builder(createColumnMetadata(metaData));
         while (resultSet.next()) {
             Object[] row = new Object[columnCount];
 
@@ -59,13 +87,13 @@ public final class ResultTableResultSetProcessor implements ResultSetProcessor<R
     }
 
     @NotNull
-    private static ResultTable.Builder createBuilder(@NotNull ResultSetMetaData metaData) throws SQLException {
+    private static List<ColumnMetadata> createColumnMetadata(@NotNull ResultSetMetaData metaData) throws SQLException {
         int columnCount = metaData.getColumnCount();
         ColumnMetadata[] result = new ColumnMetadata[columnCount];
 
         for (int i = 0; i < columnCount; i++)
             result[i] = new ColumnMetadata(i, metaData.getColumnLabel(i + 1), getColumnType(metaData, i+1), metaData.getColumnType(i+1), metaData.getColumnTypeName(i+1));
 
-        return ResultTable.builder(asList(result));
+        return asList(result);
     }
 }
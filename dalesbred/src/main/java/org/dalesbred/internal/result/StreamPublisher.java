@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.internal.result;
+
+import org.dalesbred.result.ResultFlow.Publisher;
+import org.dalesbred.result.ResultFlow.Subscriber;
+import org.dalesbred.result.ResultFlow.Subscription;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Spliterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Publisher that runs a streaming query for each subscriber on an executor. The rows are read from the
+ * stream only as the subscriber requests them, and the query is not executed before the first request.
+ * Cancelling the subscription returns from the source, which closes the statement and completes the
+ * transaction.
+ */
+public final class StreamPublisher<T> implements Publisher<T> {
+
+    @NotNull
+    private final Executor executor;
+
+    @NotNull
+    private final Consumer<Consumer<Stream<T>>> source;
+
+    /**
+     * @param executor executor used for running the queries and publishing the results
+     * @param source callback that opens a stream of results, passes it to the given consumer and
+     *               closes the stream when the consumer returns
+     */
+    public StreamPublisher(@NotNull Executor executor, @NotNull Consumer<Consumer<Stream<T>>> source) {
+        this.executor = requireNonNull(executor);
+        this.source = requireNonNull(source);
+    }
+
+    @Override
+    public void subscribe(@NotNull Subscriber<? super T> subscriber) {
+        StreamSubscription<T> subscription = new StreamSubscription<>(subscriber, source);
+        subscriber.onSubscribe(subscription);
+
+        try {
+            executor.execute(subscription);
+        } catch (RuntimeException e) {
+            subscription.cancel();
+            subscriber.onError(e);
+        }
+    }
+
+    private static final class StreamSubscription<T> implements Subscription, Runnable {
+
+        @NotNull
+        private final Subscriber<? super T> subscriber;
+
+        @NotNull
+        private final Consumer<Consumer<Stream<T>>> source;
+
+        @NotNull
+        private final ReentrantLock lock = new ReentrantLock();
+
+        @NotNull
+        private final Condition demandChanged = lock.newCondition();
+
+        /** Amount of requested items not yet published, guarded by lock */
+        private long demand = 0;
+
+        /** Has the subscription been cancelled, guarded by lock */
+        private boolean cancelled = false;
+
+        /** Error to signal after the subscription was cancelled by an invalid request or interrupt, guarded by lock */
+        @Nullable
+        private Throwable error;
+
+        StreamSubscription(@NotNull Subscriber<? super T> subscriber, @NotNull Consumer<Consumer<Stream<T>>> source) {
+            this.subscriber = requireNonNull(subscriber);
+            this.source = requireNonNull(source);
+        }
+
+        @Override
+        public void request(long n) {
+            lock.lock();
+            try {
+                if (cancelled)
+                    return;
+
+                if (n <= 0) {
+                    error = new IllegalArgumentException("non-positive request: " + n);
+                    cancelled = true;
+                } else {
+                    demand = (demand + n < 0) ? Long.MAX_VALUE : demand + n;
+                }
+                demandChanged.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            lock.lock();
+            try {
+                cancelled = true;
+                demandChanged.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (!awaitDemand()) {
+                    publishPendingError();
+                    return;
+                }
+
+                boolean[] exhausted = { false };
+                source.accept(stream -> {
+                    Spliterator<T> rows = stream.spliterator();
+                    while (awaitDemand()) {
+                        if (!rows.tryAdvance(this::publish)) {
+                            exhausted[0] = true;
+                            return;
+                        }
+                    }
+                });
+
+                if (exhausted[0])
+                    subscriber.onComplete();
+                else
+                    publishPendingError();
+
+            } catch (Throwable e) {
+                if (!isCancelled())
+                    subscriber.onError(e);
+            }
+        }
+
+        /**
+         * Waits until there's demand for the next item.
+         *
+         * @return true if an item may be published, false if the subscription was cancelled
+         */
+        private boolean awaitDemand() {
+            lock.lock();
+            try {
+                while (demand == 0 && !cancelled)
+                    demandChanged.await();
+
+                return !cancelled;
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                error = e;
+                cancelled = true;
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void publish(T item) {
+            lock.lock();
+            try {
+                if (demand != Long.MAX_VALUE)
+                    demand--;
+            } finally {
+                lock.unlock();
+            }
+
+            subscriber.onNext(item);
+        }
+
+        private void publishPendingError() {
+            Throwable pendingError;
+            lock.lock();
+            try {
+                pendingError = error;
+            } finally {
+                lock.unlock();
+            }
+
+            if (pendingError != null)
+                subscriber.onError(pendingError);
+        }
+
+        private boolean isCancelled() {
+            lock.lock();
+            try {
+                return cancelled;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.internal.utils;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A thread-safe cache holding at most given amount of entries. When the cache is full,
+ * arbitrary entries are evicted to make room for new ones.
+ */
+public final class BoundedCache<K, V> {
+
+    @NotNull
+    private final ConcurrentMap<K, V> entries = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+
+    /** Incremented by each clear, so that values computed before a clear are not stored after it */
+    @NotNull
+    private final AtomicLong generation = new AtomicLong();
+
+    @NotNull
+    private final LongAdder hits = new LongAdder();
+
+    @NotNull
+    private final LongAdder misses = new LongAdder();
+
+    @NotNull
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedCache(int maxSize) {
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize must be positive, but was: " + maxSize);
+
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the value cached for given key, or computes and caches a new value if there is none.
+     * <p>
+     * The value is computed outside of any locks, so the function may itself access the cache.
+     * If multiple threads compute a value for the same key concurrently, the first value stored
+     * wins and is returned to all of them. A value whose computation started before a {@link #clear()}
+     * is returned to the caller, but not retained in the cache.
+     */
+    @NotNull
+    public V computeIfAbsent(@NotNull K key, @NotNull Function<? super K, ? extends V> function) {
+        V value = entries.get(key);
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+
+        misses.increment();
+
+        long startGeneration = generation.get();
+        V newValue = requireNonNull(function.apply(key));
+        V existing = entries.putIfAbsent(key, newValue);
+        if (existing != null)
+            return existing;
+
+        if (generation.get() != startGeneration) {
+            // The value may be based on state that the clear invalidated
+            entries.remove(key, newValue);
+            return newValue;
+        }
+
+        evictIfNeeded(key);
+        return newValue;
+    }
+
+    private void evictIfNeeded(@NotNull K retainedKey) {
+        if (entries.size() <= maxSize)
+            return;
+
+        for (Iterator<K> it = entries.keySet().iterator(); it.hasNext() && entries.size() > maxSize; ) {
+            K key = it.next();
+            if (!key.equals(retainedKey)) {
+                it.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Removes all entries from the cache. Statistics are not reset.
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+        return "BoundedCache [size=" + entries.size() + ", maxSize=" + maxSize + ", hits=" + hits.sum()
+                + ", misses=" + misses.sum() + ", evictions=" + evictions.sum() + ']';
+    }
+}
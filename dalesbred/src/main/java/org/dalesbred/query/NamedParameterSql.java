@@ -28,6 +28,7 @@ import org.jetbrains.annotations.TestOnly;
 
 import java.util.List;
 
+import static java.util.Collections.unmodifiableList;
 import static org.dalesbred.internal.utils.CollectionUtils.mapToList;
 
 final class NamedParameterSql {
@@ -41,7 +42,7 @@ final class NamedParameterSql {
 
     NamedParameterSql(@NotNull @SQL String sql, @NotNull List<String> parameterNames) {
         this.sql = sql;
-        this.parameterNames = parameterNames;
+        this.parameterNames = unmodifiableList(parameterNames);
     }
 
     @NotNull
@@ -19,151 +19,155 @@
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
  * THE SOFTWARE.
  */
-
 package org.dalesbred.query;
 
 import org.dalesbred.annotation.SQL;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import static java.util.Objects.requireNonNull;
 
+/**
+ * Single-pass scanner that replaces named parameters in SQL with positional placeholders.
+ * Literals, quoted identifiers, casts and comments are copied as they are, so that
+ * colons inside them are not mistaken for parameters.
+ */
 final class NamedParameterSqlParser {
 
-    /** The various patterns we need to skip combined to single regex so that it will be executed at once */
-    private static final Pattern SKIP_PATTERN = Pattern.compile("('[^']*'|\"[^\"]*\"|::|--[^\n]*)");
+    @NotNull
+    @SQL
+    private final String sql;
+
+    private final int length;
 
-    private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("\\w+");
+    private int offset;
 
     @NotNull
-    private final Lexer lexer;
     private final StringBuilder sqlBuilder;
+
+    @NotNull
     private final List<String> parameterNames = new ArrayList<>();
 
     private NamedParameterSqlParser(@SQL @NotNull String sql) {
-        this.lexer = new Lexer(sql);
-        this.sqlBuilder = new StringBuilder(sql.length());
+        this.sql = sql;
+        this.length = sql.length();
+        this.sqlBuilder = new StringBuilder(length);
     }
 
     @NotNull
     public static NamedParameterSql parseSqlStatement(@NotNull @SQL String sql) {
         NamedParameterSqlParser parser = new NamedParameterSqlParser(requireNonNull(sql));
-
-        while (parser.lexer.hasMore())
-            parser.parseNext();
-
+        parser.parse();
         return new NamedParameterSql(parser.sqlBuilder.toString(), parser.parameterNames);
     }
 
-    private void parseNext() {
-        CharSequence skipped = lexer.readRegexp(SKIP_PATTERN);
-        if (skipped != null) {
-            sqlBuilder.append(skipped);
+    private void parse() {
+        // Start of the current run of characters that are copied to output unchanged
+        int copyStart = 0;
 
-        } else if (lexer.lookingAt("/*")) {
-            sqlBuilder.append(readUntil("*/"));
+        while (offset < length) {
+            char ch = sql.charAt(offset);
 
-        } else if (lexer.lookingAt(":")) {
-            sqlBuilder.append('?');
-            parameterNames.add(parseName());
+            if (ch == '\'' || ch == '"') {
+                skipQuoted(ch);
 
-        } else if (lexer.lookingAt("?")) {
-            throw new SqlSyntaxException("SQL cannot contain traditional ? placeholders.", lexer.sql);
+            } else if (ch == ':' && lookingAt(offset + 1, ':')) {
+                offset += 2;
 
-        } else {
-            sqlBuilder.append(lexer.readChar());
-        }
-    }
+            } else if (ch == ':') {
+                sqlBuilder.append(sql, copyStart, offset).append('?');
+                offset++;
+                parameterNames.add(parseName());
+                copyStart = offset;
 
-    @NotNull
-    private String parseName() {
-        lexer.expect(":");
-        CharSequence name = lexer.readRegexp(IDENTIFIER_PATTERN);
-        if (name != null)
-            return name.toString();
-        else
-            throw new SqlSyntaxException("SQL cannot end to named parameter without name", lexer.sql);
-    }
+            } else if (ch == '-' && lookingAt(offset + 1, '-')) {
+                skipLineComment();
 
-    @NotNull
-    public String readUntil(@NotNull String end) {
-        int startOffset = lexer.offset;
+            } else if (ch == '/' && lookingAt(offset + 1, '*')) {
+                skipUntil("*/", offset + 2);
 
-        int nextHit = lexer.findNext(end);
-        if (nextHit != -1)
-            lexer.offset = nextHit + end.length();
-        else
-            throw new SqlSyntaxException("Block end not found: \"" + end + "\".", lexer.sql);
+            } else if (ch == '$' && !isPrecededByIdentifier()) {
+                skipDollarQuoted();
+
+            } else if (ch == '?') {
+                throw new SqlSyntaxException("SQL cannot contain traditional ? placeholders.", sql);
 
-        return lexer.sql.substring(startOffset, lexer.offset);
+            } else {
+                offset++;
+            }
+        }
+
+        sqlBuilder.append(sql, copyStart, length);
     }
 
-    private static final class Lexer implements CharSequence {
-        private final String sql;
-        private int offset;
+    @NotNull
+    private String parseName() {
+        int start = offset;
+        while (offset < length && isIdentifierPart(sql.charAt(offset)))
+            offset++;
 
-        public Lexer(String sql) {
-            this.sql = sql;
-        }
+        if (offset == start)
+            throw new SqlSyntaxException("SQL cannot end to named parameter without name", sql);
 
-        private boolean hasMore() {
-            return offset < sql.length();
-        }
+        return sql.substring(start, offset);
+    }
 
-        private boolean lookingAt(@NotNull String prefix) {
-            return sql.startsWith(prefix, offset);
-        }
+    /**
+     * Skips a quoted literal or identifier. Escaped quotes ('') are handled naturally as two
+     * adjacent quoted sections. Unterminated quote extends to the end of the SQL.
+     */
+    private void skipQuoted(char quote) {
+        int end = sql.indexOf(quote, offset + 1);
+        offset = (end != -1) ? end + 1 : length;
+    }
 
-        private void expect(@NotNull String prefix) {
-            if (lookingAt(prefix))
-                offset += prefix.length();
-            else
-                throw new SqlSyntaxException("expected '" + prefix + '\'', sql);
-        }
+    private void skipLineComment() {
+        int end = sql.indexOf('\n', offset + 2);
+        offset = (end != -1) ? end : length;
+    }
 
-        @Nullable
-        private CharSequence readRegexp(@NotNull Pattern pattern) {
-            Matcher matcher = pattern.matcher(this);
-            if (matcher.lookingAt()) {
-                CharSequence result = subSequence(0, matcher.end());
-                offset += result.length();
-                return result;
-            } else {
-                return null;
-            }
+    /**
+     * Skips PostgreSQL dollar-quoted string such as {@code $$text$$} or {@code $tag$text$tag$}.
+     * If the dollar does not start a valid opening tag (e.g. positional parameter {@code $1}),
+     * it's treated as a normal character.
+     */
+    private void skipDollarQuoted() {
+        int tagEnd = offset + 1;
+        if (tagEnd < length && isIdentifierStart(sql.charAt(tagEnd))) {
+            tagEnd++;
+            while (tagEnd < length && isIdentifierPart(sql.charAt(tagEnd)))
+                tagEnd++;
         }
 
-        @Override
-        public int length() {
-            return sql.length() - offset;
-        }
+        if (lookingAt(tagEnd, '$'))
+            skipUntil(sql.substring(offset, tagEnd + 1), tagEnd + 1);
+        else
+            offset++;
+    }
 
-        @Override
-        public char charAt(int index) {
-            return sql.charAt(offset + index);
-        }
+    private void skipUntil(@NotNull String end, int searchStart) {
+        int nextHit = sql.indexOf(end, searchStart);
+        if (nextHit != -1)
+            offset = nextHit + end.length();
+        else
+            throw new SqlSyntaxException("Block end not found: \"" + end + "\".", sql);
+    }
 
-        @Override
-        public CharSequence subSequence(int start, int end) {
-            return sql.substring(offset + start, offset + end);
-        }
+    private boolean lookingAt(int index, char ch) {
+        return index < length && sql.charAt(index) == ch;
+    }
 
-        @Override
-        public String toString() {
-            return sql.substring(offset);
-        }
+    private boolean isPrecededByIdentifier() {
+        return offset > 0 && (isIdentifierPart(sql.charAt(offset - 1)) || sql.charAt(offset - 1) == '$');
+    }
 
-        private int findNext(@NotNull String substring) {
-            return sql.indexOf(substring, offset);
-        }
+    private static boolean isIdentifierStart(char ch) {
+        return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || ch == '_';
+    }
 
-        public char readChar() {
-            return sql.charAt(offset++);
-        }
+    private static boolean isIdentifierPart(char ch) {
+        return isIdentifierStart(ch) || (ch >= '0' && ch <= '9');
     }
 }
@@ -23,7 +23,9 @@
 package org.dalesbred.query;
 
 import org.dalesbred.annotation.SQL;
+import org.dalesbred.internal.utils.BoundedCache;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.Serializable;
 import java.util.Iterator;
@@ -46,11 +48,41 @@ public final class SqlQuery implements Serializable {
     @NotNull
     private final List<?> args;
 
+    @Nullable
+    private final Integer fetchSize;
+
+    @Nullable
+    private final Integer maxRows;
+
+    @Nullable
+    private final Integer queryTimeout;
+
     private static final long serialVersionUID = 1;
 
+    /** Maximum amount of parsed named queries to keep in cache */
+    private static final int MAX_CACHED_NAMED_QUERIES = 1000;
+
+    /**
+     * Parsed named queries keyed by their original SQL. Named queries are typically
+     * constants, so there's no need to parse the same SQL over and over again.
+     */
+    @NotNull
+    private static final BoundedCache<String, NamedParameterSql> namedQueryCache = new BoundedCache<>(MAX_CACHED_NAMED_QUERIES);
+
     private SqlQuery(@NotNull @SQL String sql, @NotNull List<?> args) {
+        this(sql, unmodifiableList(args), null, null, null);
+    }
+
+    private SqlQuery(@NotNull @SQL String sql,
+                     @NotNull List<?> args,
+                     @Nullable Integer fetchSize,
+                     @Nullable Integer maxRows,
+                     @Nullable Integer queryTimeout) {
         this.sql = requireNonNull(sql);
-        this.args = unmodifiableList(args);
+        this.args = args;
+        this.fetchSize = fetchSize;
+        this.maxRows = maxRows;
+        this.queryTimeout = queryTimeout;
     }
 
     /**
@@ -101,7 +133,12 @@ public final class SqlQuery implements Serializable {
      */
     @NotNull
     public static SqlQuery namedQuery(@NotNull @SQL String sql, @NotNull VariableResolver variableResolver) {
-        return NamedParameterSqlParser.parseSqlStatement(sql).toQuery(variableResolver);
+        return parseNamedQuery(sql).toQuery(variableResolver);
+    }
+
+    @NotNull
+    static NamedParameterSql parseNamedQuery(@NotNull @SQL String sql) {
+        return namedQueryCache.computeIfAbsent(requireNonNull(sql), NamedParameterSqlParser::parseSqlStatement);
     }
 
     /**
@@ -121,6 +158,73 @@ public final class SqlQuery implements Serializable {
         return args;
     }
 
+    /**
+     * Returns the fetch size to use for this query, or null if the default of the database should be used.
+     *
+     * @see java.sql.Statement#setFetchSize(int)
+     */
+    @Nullable
+    public Integer getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Returns the maximum number of rows to return from this query, or null if the default of
+     * the database should be used.
+     *
+     * @see java.sql.Statement#setMaxRows(int)
+     */
+    @Nullable
+    public Integer getMaxRows() {
+        return maxRows;
+    }
+
+    /**
+     * Returns the timeout of this query in seconds, or null if the default of the database should be used.
+     *
+     * @see java.sql.Statement#setQueryTimeout(int)
+     */
+    @Nullable
+    public Integer getQueryTimeout() {
+        return queryTimeout;
+    }
+
+    /**
+     * Returns a copy of this query with given fetch size. Zero means that the driver may decide the fetch size.
+     *
+     * @see java.sql.Statement#setFetchSize(int)
+     */
+    @NotNull
+    public SqlQuery withFetchSize(int fetchSize) {
+        if (fetchSize < 0) throw new IllegalArgumentException("negative fetchSize: " + fetchSize);
+
+        return new SqlQuery(sql, args, fetchSize, maxRows, queryTimeout);
+    }
+
+    /**
+     * Returns a copy of this query that returns at most given amount of rows. Zero means that there is no limit.
+     *
+     * @see java.sql.Statement#setMaxRows(int)
+     */
+    @NotNull
+    public SqlQuery withMaxRows(int maxRows) {
+        if (maxRows < 0) throw new IllegalArgumentException("negative maxRows: " + maxRows);
+
+        return new SqlQuery(sql, args, fetchSize, maxRows, queryTimeout);
+    }
+
+    /**
+     * Returns a copy of this query with given timeout in seconds. Zero means that there is no timeout.
+     *
+     * @see java.sql.Statement#setQueryTimeout(int)
+     */
+    @NotNull
+    public SqlQuery withQueryTimeout(int seconds) {
+        if (seconds < 0) throw new IllegalArgumentException("negative queryTimeout: " + seconds);
+
+        return new SqlQuery(sql, args, fetchSize, maxRows, seconds);
+    }
+
     @NotNull
     @Override
     public String toString() {
@@ -145,7 +249,11 @@ public final class SqlQuery implements Serializable {
 
         if (obj instanceof SqlQuery) {
             SqlQuery rhs = (SqlQuery) obj;
-            return sql.equals(rhs.sql) && args.equals(rhs.args);
+            return sql.equals(rhs.sql)
+                    && args.equals(rhs.args)
+                    && Objects.equals(fetchSize, rhs.fetchSize)
+                    && Objects.equals(maxRows, rhs.maxRows)
+                    && Objects.equals(queryTimeout, rhs.queryTimeout);
         }
 
         return false;
@@ -153,6 +261,6 @@ public final class SqlQuery implements Serializable {
 
     @Override
     public int hashCode() {
-        return Objects.hash(sql, args);
+        return Objects.hash(sql, args, fetchSize, maxRows, queryTimeout);
     }
 }
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.result;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Values of a single column of a columnar {@link ResultTable}. Numeric and boolean columns are
+ * stored in primitive arrays with a separate bitmap for nulls, other columns as objects.
+ */
+abstract class ResultColumn {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Number of values in this column */
+    int size;
+
+    /** Rows that contain null, or null if there are no such rows */
+    @Nullable
+    private BitSet nulls;
+
+    /**
+     * Creates storage for column whose values are of given type.
+     */
+    @NotNull
+    static ResultColumn forType(@NotNull Class<?> type) {
+        if (type == Integer.class)
+            return new IntColumn();
+        else if (type == Long.class)
+            return new LongColumn();
+        else if (type == Double.class)
+            return new DoubleColumn();
+        else if (type == Boolean.class)
+            return new BooleanColumn();
+        else
+            return new ObjectColumn();
+    }
+
+    /**
+     * Reads given column of the current row of result set and appends it to this column.
+     */
+    abstract void read(@NotNull ResultSet resultSet, int column) throws SQLException;
+
+    @Nullable
+    abstract Object getValue(int row);
+
+    /**
+     * Releases the unused capacity after all values have been added.
+     */
+    abstract void trimToSize();
+
+    @Nullable
+    final Object get(int row) {
+        if (row < 0 || row >= size)
+            throw new IndexOutOfBoundsException("row: " + row + ", size: " + size);
+
+        return isNull(row) ? null : getValue(row);
+    }
+
+    final void readNullMarker(@NotNull ResultSet resultSet) throws SQLException {
+        if (resultSet.wasNull()) {
+            if (nulls == null)
+                nulls = new BitSet();
+            nulls.set(size);
+        }
+    }
+
+    private boolean isNull(int row) {
+        return nulls != null && nulls.get(row);
+    }
+
+    static int newCapacity(int capacity) {
+        if (capacity == 0)
+            return INITIAL_CAPACITY;
+        if (capacity == Integer.MAX_VALUE)
+            throw new UnexpectedResultException("Too many rows to fit in a table");
+
+        return (int) Math.min((long) capacity * 2, Integer.MAX_VALUE);
+    }
+
+    private static final class IntColumn extends ResultColumn {
+        private int[] values = new int[0];
+
+        @Override
+        void read(@NotNull ResultSet resultSet, int column) throws SQLException {
+            int value = resultSet.getInt(column);
+            if (value == 0)
+                readNullMarker(resultSet);
+
+            if (size == values.length)
+                values = Arrays.copyOf(values, newCapacity(size));
+            values[size++] = value;
+        }
+
+        @Override
+        Object getValue(int row) {
+            return values[row];
+        }
+
+        @Override
+        void trimToSize() {
+            values = Arrays.copyOf(values, size);
+        }
+    }
+
+    private static final class LongColumn extends ResultColumn {
+        private long[] values = new long[0];
+
+        @Override
+        void read(@NotNull ResultSet resultSet, int column) throws SQLException {
+            long value = resultSet.getLong(column);
+            if (value == 0)
+                readNullMarker(resultSet);
+
+            if (size == values.length)
+                values = Arrays.copyOf(values, newCapacity(size));
+            values[size++] = value;
+        }
+
+        @Override
+        Object getValue(int row) {
+            return values[row];
+        }
+
+        @Override
+        void trimToSize() {
+            values = Arrays.copyOf(values, size);
+        }
+    }
+
+    private static final class DoubleColumn extends ResultColumn {
+        private double[] values = new double[0];
+
+        @Override
+        void read(@NotNull ResultSet resultSet, int column) throws SQLException {
+            double value = resultSet.getDouble(column);
+            if (value == 0)
+                readNullMarker(resultSet);
+
+            if (size == values.length)
+                values = Arrays.copyOf(values, newCapacity(size));
+            values[size++] = value;
+        }
+
+        @Override
+        Object getValue(int row) {
+            return values[row];
+        }
+
+        @Override
+        void trimToSize() {
+            values = Arrays.copyOf(values, size);
+        }
+    }
+
+    private static final class BooleanColumn extends ResultColumn {
+        private final BitSet values = new BitSet();
+
+        @Override
+        void read(@NotNull ResultSet resultSet, int column) throws SQLException {
+            boolean value = resultSet.getBoolean(column);
+            if (value)
+                values.set(size);
+            else
+                readNullMarker(resultSet);
+
+            size++;
+        }
+
+        @Override
+        Object getValue(int row) {
+            return values.get(row);
+        }
+
+        @Override
+        void trimToSize() {
+        }
+    }
+
+    private static final class ObjectColumn extends ResultColumn {
+        private Object[] values = new Object[0];
+
+        @Override
+        void read(@NotNull ResultSet resultSet, int column) throws SQLException {
+            if (size == values.length)
+                values = Arrays.copyOf(values, newCapacity(size));
+            values[size++] = resultSet.getObject(column);
+        }
+
+        @Override
+        Object getValue(int row) {
+            return values[row];
+        }
+
+        @Override
+        void trimToSize() {
+            values = Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.result;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * <p>
+ * Interfaces for publishing results to subscribers on demand, following the Reactive Streams
+ * protocol.
+ * </p>
+ * <p>
+ * The interfaces have the same methods as the ones in {@code java.util.concurrent.Flow} of Java 9,
+ * which is not available on Java 8. Adapting them to each other requires only delegating wrappers.
+ * </p>
+ */
+public final class ResultFlow {
+
+    private ResultFlow() { }
+
+    /**
+     * Producer of items that are received by subscribers as they request them.
+     */
+    @FunctionalInterface
+    public interface Publisher<T> {
+
+        /**
+         * Adds given subscriber. The subscriber receives {@link Subscriber#onSubscribe(Subscription)}
+         * before any other signals.
+         */
+        void subscribe(@NotNull Subscriber<? super T> subscriber);
+    }
+
+    /**
+     * Receiver of items published by a {@link Publisher}.
+     */
+    public interface Subscriber<T> {
+
+        /**
+         * Invoked before any other method, passing the subscription used for requesting items.
+         */
+        void onSubscribe(@NotNull Subscription subscription);
+
+        /**
+         * Invoked with the next item, only when there's outstanding demand.
+         */
+        void onNext(T item);
+
+        /**
+         * Invoked when the publication fails. No more signals are received after this.
+         */
+        void onError(@NotNull Throwable throwable);
+
+        /**
+         * Invoked when all items have been published. No more signals are received after this.
+         */
+        void onComplete();
+    }
+
+    /**
+     * Link between a {@link Publisher} and a {@link Subscriber}.
+     */
+    public interface Subscription {
+
+        /**
+         * Requests given amount of more items. Non-positive amounts fail the subscription.
+         */
+        void request(long n);
+
+        /**
+         * Asks the publisher to stop publishing and to release its resources.
+         */
+        void cancel();
+    }
+}
@@ -24,8 +24,12 @@ package org.dalesbred.result;
 
 import org.dalesbred.internal.utils.TypeUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Type;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -37,6 +41,11 @@ import static org.dalesbred.internal.utils.CollectionUtils.mapToList;
 /**
  * Represents the results of the query along with its metadata. Basically a detached
  * version of {@link java.sql.ResultSet}.
+ * <p>
+ * By default, the values are stored row by row. Tables built with {@link #columnarBuilder(List)}
+ * store values column by column instead, using primitive arrays for numeric and boolean columns.
+ * This saves a lot of memory for large tables, but the rows of columnar tables are views that are
+ * created when they are accessed.
  */
 public final class ResultTable implements Iterable<ResultTable.ResultRow> {
 
@@ -46,9 +55,35 @@ public final class ResultTable implements Iterable<ResultTable.ResultRow> {
     @NotNull
     private final List<ResultRow> rows;
 
+    /** Values by column for columnar tables, null for row-based tables */
+    @Nullable
+    private final ResultColumn[] columnValues;
+
     private ResultTable(@NotNull List<ColumnMetadata> columns, @NotNull List<ResultRow> rows) {
         this.columns = unmodifiableList(columns);
         this.rows = unmodifiableList(rows);
+        this.columnValues = null;
+    }
+
+    private ResultTable(@NotNull List<ColumnMetadata> columns, @NotNull ResultColumn[] columnValues, int rowCount) {
+        this.columns = unmodifiableList(columns);
+        this.columnValues = columnValues;
+
+        ColumnIndices indices = new ColumnIndices(columns);
+        this.rows = new AbstractList<ResultRow>() {
+            @Override
+            public ResultRow get(int index) {
+                if (index < 0 || index >= rowCount)
+                    throw new IndexOutOfBoundsException("row: " + index + ", size: " + rowCount);
+
+                return new ResultRow(new ColumnarRowValues(columnValues, index), indices);
+            }
+
+            @Override
+            public int size() {
+                return rowCount;
+            }
+        };
     }
 
     public int getRowCount() {
@@ -63,7 +98,10 @@ public final class ResultTable implements Iterable<ResultTable.ResultRow> {
      * Returns the value of given column of given row. Both indices are zero-based.
      */
     public Object get(int row, int column) {
-        return rows.get(row).get(column);
+        if (columnValues != null)
+            return columnValues[column].get(row);
+        else
+            return rows.get(row).get(column);
     }
 
     /**
@@ -264,6 +302,81 @@ public final class ResultTable implements Iterable<ResultTable.ResultRow> {
         }
     }
 
+    /**
+     * Returns a builder for building a columnar ResultTable for given columns.
+     */
+    @NotNull
+    public static ColumnarBuilder columnarBuilder(@NotNull List<ColumnMetadata> columns) {
+        return new ColumnarBuilder(columns);
+    }
+
+    /**
+     * A builder for building columnar ResultTables directly from {@link ResultSet}s.
+     */
+    public static class ColumnarBuilder {
+
+        @NotNull
+        private final List<ColumnMetadata> columns;
+
+        @NotNull
+        private final ResultColumn[] columnValues;
+
+        private int rowCount;
+
+        public ColumnarBuilder(@NotNull List<ColumnMetadata> columns) {
+            this.columns = requireNonNull(columns);
+            this.columnValues = new ResultColumn[columns.size()];
+
+            for (int i = 0; i < columnValues.length; i++)
+                columnValues[i] = ResultColumn.forType(columns.get(i).getRawType());
+        }
+
+        /**
+         * Adds the current row of given result set to the table. The columns of the result set
+         * must match the columns given to this builder.
+         */
+        public void addRow(@NotNull ResultSet resultSet) throws SQLException {
+            for (int i = 0; i < columnValues.length; i++)
+                columnValues[i].read(resultSet, i + 1);
+
+            rowCount++;
+        }
+
+        @NotNull
+        public ResultTable build() {
+            for (ResultColumn column : columnValues)
+                column.trimToSize();
+
+            return new ResultTable(columns, columnValues, rowCount);
+        }
+    }
+
+    /**
+     * Values of a single row of columnar table.
+     */
+    private static final class ColumnarRowValues extends AbstractList<Object> {
+
+        @NotNull
+        private final ResultColumn[] columnValues;
+
+        private final int row;
+
+        ColumnarRowValues(@NotNull ResultColumn[] columnValues, int row) {
+            this.columnValues = columnValues;
+            this.row = row;
+        }
+
+        @Override
+        public Object get(int index) {
+            return columnValues[index].get(row);
+        }
+
+        @Override
+        public int size() {
+            return columnValues.length;
+        }
+    }
+
     /**
      * Data structure to support searches by name.
      */
@@ -34,22 +34,25 @@ public abstract class AbstractTransactionManager implements TransactionManager {
 
     protected abstract <T> T withNewTransaction(@NotNull TransactionCallback<T> callback,
                                                 @NotNull Dialect dialect,
-                                                @NotNull Isolation isolation);
+                                                @NotNull Isolation isolation,
+                                                boolean readOnly);
 
     protected abstract <T> T withSuspendedTransaction(@NotNull TransactionCallback<T> callback,
                                                       @NotNull Isolation isolation,
+                                                      boolean readOnly,
                                                       @NotNull Dialect dialect);
 
     @Override
     public <T> T withTransaction(@NotNull TransactionSettings settings, @NotNull TransactionCallback<T> callback, @NotNull Dialect dialect) {
         Propagation propagation = settings.getPropagation();
         Isolation isolation = settings.getIsolation();
+        boolean readOnly = settings.isReadOnly();
 
         DefaultTransaction existingTransaction = getActiveTransaction().orElse(null);
 
         if (existingTransaction != null) {
             if (propagation == Propagation.REQUIRES_NEW)
-                return withSuspendedTransaction(callback, isolation, dialect);
+                return withSuspendedTransaction(callback, isolation, readOnly, dialect);
             else if (propagation == Propagation.NESTED)
                 return existingTransaction.nested(callback, dialect);
             else
@@ -59,7 +62,7 @@ public abstract class AbstractTransactionManager implements TransactionManager {
             if (propagation == Propagation.MANDATORY)
                 throw new NoActiveTransactionException("Transaction propagation was MANDATORY, but there was no existing transaction.");
 
-            return withNewTransaction(callback, dialect, isolation);
+            return withNewTransaction(callback, dialect, isolation, readOnly);
         }
     }
 
@@ -23,8 +23,10 @@
 package org.dalesbred.transaction;
 
 import org.dalesbred.dialect.Dialect;
+import org.dalesbred.instrumentation.QueryListener;
 import org.dalesbred.internal.utils.Throwables;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,6 +34,7 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Savepoint;
 
+import static java.lang.System.nanoTime;
 import static java.util.Objects.requireNonNull;
 
 final class DefaultTransaction {
@@ -39,26 +42,49 @@ final class DefaultTransaction {
     @NotNull
     private final Connection connection;
 
+    /** Prepared statements reused within this transaction, or null if statements are not cached */
+    @Nullable
+    private final StatementCache statementCache;
+
+    /** Listener notified when the transaction completes, or null */
+    @Nullable
+    private final QueryListener queryListener;
+
+    /** Value of {@link System#nanoTime()} when the transaction was started */
+    private final long startTime = nanoTime();
+
     @NotNull
     private static final Logger log = LoggerFactory.getLogger(DefaultTransaction.class);
 
     DefaultTransaction(@NotNull Connection connection) {
+        this(connection, 0, null);
+    }
+
+    /**
+     * Constructs a new transaction for given connection.
+     *
+     * @param statementCacheSize the maximum amount of idle prepared statements retained for reuse until
+     *                           the transaction is completed, or 0 to disable caching
+     * @param queryListener listener to notify about the completion of the transaction, or null
+     */
+    DefaultTransaction(@NotNull Connection connection, int statementCacheSize, @Nullable QueryListener queryListener) {
         this.connection = requireNonNull(connection);
+        this.statementCache = statementCacheSize > 0 ? new StatementCache(connection, statementCacheSize) : null;
+        this.queryListener = queryListener;
     }
 
     <T> T execute(@NotNull TransactionCallback<T> callback, @NotNull Dialect dialect) {
         try {
             try {
-                TransactionContext ctx = new DefaultTransactionContext(connection);
+                TransactionContext ctx = new DefaultTransactionContext(connection, statementCache, startTime);
                 T value = callback.execute(ctx);
-                if (ctx.isRollbackOnly())
-                    connection.rollback();
-                else
-                    connection.commit();
+                closeStatementCache();
+                complete(!ctx.isRollbackOnly());
                 return value;
 
             } catch (Exception e) {
-                connection.rollback();
+                closeStatementCacheAfterFailure();
+                complete(false);
                 log.warn("rolled back transaction because of exception: " + e, e);
                 throw Throwables.propagate(e, SQLException.class);
             }
@@ -71,7 +97,7 @@ final class DefaultTransaction {
         try {
             Savepoint savepoint = connection.setSavepoint();
             try {
-                TransactionContext ctx = new DefaultTransactionContext(connection);
+                TransactionContext ctx = new DefaultTransactionContext(connection, statementCache, startTime);
                 T value = callback.execute(ctx);
                 if (ctx.isRollbackOnly())
                     connection.rollback(savepoint);
@@ -91,9 +117,40 @@ final class DefaultTransaction {
 
     <T> T join(@NotNull TransactionCallback<T> callback, @NotNull Dialect dialect) {
         try {
-            return callback.execute(new DefaultTransactionContext(connection));
+            return callback.execute(new DefaultTransactionContext(connection, statementCache, startTime));
         } catch (SQLException e) {
             throw dialect.convertException(e);
         }
     }
+
+    private void complete(boolean commit) throws SQLException {
+        long completionStartTime = (queryListener != null) ? nanoTime() : 0;
+
+        if (commit)
+            connection.commit();
+        else
+            connection.rollback();
+
+        if (queryListener != null) {
+            long endTime = nanoTime();
+            try {
+                queryListener.transactionCompleted(endTime - startTime, endTime - completionStartTime, commit);
+            } catch (RuntimeException e) {
+                log.warn("ignored exception thrown by query listener: " + e, e);
+            }
+        }
+    }
+
+    private void closeStatementCache() throws SQLException {
+        if (statementCache != null)
+            statementCache.close();
+    }
+
+    private void closeStatementCacheAfterFailure() {
+        try {
+            closeStatementCache();
+        } catch (SQLException e) {
+            log.warn("failed to close cached statements of failed transaction: " + e, e);
+        }
+    }
 }
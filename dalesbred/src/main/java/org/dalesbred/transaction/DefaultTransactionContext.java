@@ -23,8 +23,12 @@
 package org.dalesbred.transaction;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
 
 import static java.util.Objects.requireNonNull;
 
@@ -32,10 +36,18 @@ final class DefaultTransactionContext implements TransactionContext {
 
     @NotNull
     private final Connection connection;
+    @Nullable
+    private final StatementCache statementCache;
+
+    /** Value of {@link System#nanoTime()} when the transaction was started */
+    private final long startTime;
+
     private boolean rollbackOnly = false;
 
-    DefaultTransactionContext(@NotNull Connection connection) {
+    DefaultTransactionContext(@NotNull Connection connection, @Nullable StatementCache statementCache, long startTime) {
         this.connection = requireNonNull(connection);
+        this.statementCache = statementCache;
+        this.startTime = startTime;
     }
 
     /**
@@ -59,4 +71,35 @@ final class DefaultTransactionContext implements TransactionContext {
     public boolean isRollbackOnly() {
         return rollbackOnly;
     }
+
+    @Override
+    public long getElapsedNanos() {
+        return System.nanoTime() - startTime;
+    }
+
+    @NotNull
+    @Override
+    public PreparedStatement prepareStatement(@NotNull String sql) throws SQLException {
+        if (statementCache != null)
+            return statementCache.prepareStatement(sql, null);
+        else
+            return connection.prepareStatement(sql);
+    }
+
+    @NotNull
+    @Override
+    public PreparedStatement prepareStatementReturningGeneratedKeys(@NotNull String sql, @NotNull List<String> columnNames) throws SQLException {
+        if (statementCache != null)
+            return statementCache.prepareStatement(sql, columnNames);
+        else
+            return TransactionContext.super.prepareStatementReturningGeneratedKeys(sql, columnNames);
+    }
+
+    @Override
+    public void releaseStatement(@NotNull PreparedStatement statement) throws SQLException {
+        if (statementCache != null)
+            statementCache.releaseStatement(statement);
+        else
+            statement.close();
+    }
 }
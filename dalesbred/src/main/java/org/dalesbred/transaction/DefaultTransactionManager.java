@@ -22,9 +22,12 @@
 
 package org.dalesbred.transaction;
 
+import org.dalesbred.DatabaseException;
 import org.dalesbred.connection.ConnectionProvider;
 import org.dalesbred.dialect.Dialect;
+import org.dalesbred.instrumentation.QueryListener;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -33,7 +36,15 @@ import java.util.Optional;
 import static java.util.Objects.requireNonNull;
 
 /**
+ * <p>
  * Default transaction manager that handles all transactions by itself.
+ * </p>
+ * <p>
+ * The active transaction of each thread is kept in a {@link ThreadLocal} only for the duration of the
+ * transaction: the value is removed when the transaction completes, so threads without an active transaction
+ * carry no per-thread state. This suits servers that run each request in its own short-lived thread, such as
+ * a virtual thread.
+ * </p>
  */
 public final class DefaultTransactionManager extends AbstractTransactionManager {
 
@@ -46,6 +57,13 @@ public final class DefaultTransactionManager extends AbstractTransactionManager
     @NotNull
     private final ConnectionProvider connectionProvider;
 
+    /** Maximum amount of prepared statements each transaction retains for reuse, 0 for none */
+    private int statementCacheSize = 0;
+
+    /** Listener notified about completed transactions, or null */
+    @Nullable
+    private QueryListener queryListener;
+
     public DefaultTransactionManager(@NotNull ConnectionProvider connectionProvider) {
         this.connectionProvider = requireNonNull(connectionProvider);
     }
@@ -53,60 +71,151 @@ public final class DefaultTransactionManager extends AbstractTransactionManager
     @Override
     protected <T> T withNewTransaction(@NotNull TransactionCallback<T> callback,
                                        @NotNull Dialect dialect,
-                                       @NotNull Isolation isolation) {
-        Connection connection = openConnection(isolation, dialect);
+                                       @NotNull Isolation isolation,
+                                       boolean readOnly) {
+        Connection connection = openConnection(isolation, readOnly, dialect);
+        Throwable failure = null;
         try {
-            DefaultTransaction newTransaction = new DefaultTransaction(connection);
-            activeTransaction.set(newTransaction);
+            DefaultTransaction newTransaction = new DefaultTransaction(connection, statementCacheSize, queryListener);
+            setActiveTransaction(newTransaction);
             return newTransaction.execute(callback, dialect);
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
         } finally {
-            activeTransaction.set(null);
-            releaseConnection(connection, dialect);
+            setActiveTransaction(null);
+            releaseConnection(connection, readOnly, dialect, failure);
         }
     }
 
     @Override
     protected <T> T withSuspendedTransaction(@NotNull TransactionCallback<T> callback,
                                              @NotNull Isolation isolation,
+                                             boolean readOnly,
                                              @NotNull Dialect dialect) {
         DefaultTransaction suspended = getActiveTransaction().orElse(null);
         try {
-            activeTransaction.set(null);
+            setActiveTransaction(null);
 
             TransactionSettings settings = new TransactionSettings();
             settings.setPropagation(Propagation.REQUIRED);
             settings.setIsolation(isolation);
+            settings.setReadOnly(readOnly);
             return withTransaction(settings, callback, dialect);
         } finally {
-            activeTransaction.set(suspended);
+            setActiveTransaction(suspended);
         }
     }
 
+    /**
+     * Returns the maximum amount of prepared statements each transaction retains for reuse.
+     */
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    /**
+     * Sets the maximum amount of prepared statements each transaction retains for reuse. When a statement
+     * with the same SQL is executed again in the same transaction, the cached statement is reused instead
+     * of preparing a new one. Cached statements are closed when the transaction completes. This is useful
+     * for drivers that don't cache statements themselves. By default statements are not cached.
+     *
+     * @param statementCacheSize maximum amount of cached statements per transaction, or 0 to disable caching
+     */
+    public void setStatementCacheSize(int statementCacheSize) {
+        if (statementCacheSize < 0) throw new IllegalArgumentException("negative statementCacheSize: " + statementCacheSize);
+
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    /**
+     * Returns the listener notified about completed transactions, if any.
+     */
+    @Nullable
+    public QueryListener getQueryListener() {
+        return queryListener;
+    }
+
+    /**
+     * Sets a listener that is notified when transactions started by this manager complete.
+     * This is set automatically by {@link org.dalesbred.Database#setQueryListener(QueryListener)}.
+     *
+     * @param queryListener listener to notify, or null to disable notifications
+     */
+    public void setQueryListener(@Nullable QueryListener queryListener) {
+        this.queryListener = queryListener;
+    }
+
     @Override
     @NotNull
     protected Optional<DefaultTransaction> getActiveTransaction() {
         return Optional.ofNullable(activeTransaction.get());
     }
 
+    private void setActiveTransaction(@Nullable DefaultTransaction transaction) {
+        if (transaction != null)
+            activeTransaction.set(transaction);
+        else
+            activeTransaction.remove();
+    }
+
     @NotNull
-    private Connection openConnection(@NotNull Isolation isolation, @NotNull Dialect dialect) {
+    private Connection openConnection(@NotNull Isolation isolation, boolean readOnly, @NotNull Dialect dialect) {
+        Connection connection;
+        try {
+            connection = connectionProvider.getConnection();
+        } catch (SQLException e) {
+            throw dialect.convertException(e);
+        }
+
         try {
-            Connection connection = connectionProvider.getConnection();
             connection.setAutoCommit(false);
             if (isolation != Isolation.DEFAULT)
                 connection.setTransactionIsolation(isolation.getJdbcLevel());
+            if (readOnly)
+                dialect.setReadOnly(connection, true);
 
             return connection;
         } catch (SQLException e) {
-            throw dialect.convertException(e);
+            DatabaseException exception = dialect.convertException(e);
+            releaseConnection(connection, readOnly, dialect, exception);
+            throw exception;
+        } catch (RuntimeException e) {
+            releaseConnection(connection, readOnly, dialect, e);
+            throw e;
         }
     }
 
-    private void releaseConnection(@NotNull Connection connection, @NotNull Dialect dialect) {
+    /**
+     * Releases the connection, resetting its read-only mode first. If the transaction has already failed,
+     * failures to release are added as suppressed exceptions of the original failure instead of replacing it.
+     */
+    private void releaseConnection(@NotNull Connection connection, boolean readOnly, @NotNull Dialect dialect, @Nullable Throwable failure) {
+        SQLException releaseFailure = null;
+
+        // Pooled connections must not carry the read-only mode to their next user
+        if (readOnly) {
+            try {
+                dialect.setReadOnly(connection, false);
+            } catch (SQLException e) {
+                releaseFailure = e;
+            }
+        }
+
         try {
             connectionProvider.releaseConnection(connection);
         } catch (SQLException e) {
-            throw dialect.convertException(e);
+            if (releaseFailure == null)
+                releaseFailure = e;
+            else
+                releaseFailure.addSuppressed(e);
+        }
+
+        if (releaseFailure != null) {
+            if (failure != null)
+                failure.addSuppressed(releaseFailure);
+            else
+                throw dialect.convertException(releaseFailure);
         }
     }
 }
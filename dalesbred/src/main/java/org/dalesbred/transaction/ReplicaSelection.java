@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.transaction;
+
+/**
+ * Strategies for selecting the replica for read-only transactions in {@link RoutingTransactionManager}.
+ */
+public enum ReplicaSelection {
+
+    /** Use each replica in turn. */
+    ROUND_ROBIN,
+
+    /**
+     * Use the replica that has recently spent the least time acquiring connections and starting and
+     * committing transactions. Time spent in the transaction callback is not counted, so slow application
+     * code does not make a replica look slow. Replicas that have not been measured yet are preferred,
+     * and every 16th transaction is routed round-robin so that the measurements of the other replicas
+     * stay current and a replica that was slow once is not avoided forever. A replica that fails to
+     * acquire a connection or to commit is treated as much slower than the others.
+     */
+    LEAST_LATENCY
+}
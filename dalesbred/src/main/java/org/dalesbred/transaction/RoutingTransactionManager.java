@@ -0,0 +1,317 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.transaction;
+
+import org.dalesbred.connection.ConnectionProvider;
+import org.dalesbred.dialect.Dialect;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static java.lang.System.nanoTime;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link TransactionManager} that splits reads and writes between a primary database and its replicas.
+ * Transactions that are {@link TransactionSettings#setReadOnly(boolean) read-only} are executed on one of
+ * the replicas, selected according to {@link ReplicaSelection}, and all other transactions on the primary.
+ * <p>
+ * Transactions started inside another transaction are executed by the same database as the outer
+ * transaction, unless they use {@link Propagation#REQUIRES_NEW}, in which case they are routed on their own.
+ * <p>
+ * Since replicas may lag behind the primary, a thread that has just written to the primary might not see
+ * its own changes on a replica. To avoid this, {@link #setReadYourWritesWindow(Duration)} sends also the
+ * read-only transactions of such thread to the primary for a while after it has written. Only writable
+ * transactions open the window: reads sent to the primary because of it do not extend it.
+ */
+public final class RoutingTransactionManager implements TransactionManager {
+
+    @NotNull
+    private final TransactionManager primary;
+
+    @NotNull
+    private final List<TransactionManager> replicas;
+
+    /** The manager executing the innermost active transaction of each thread */
+    @NotNull
+    private final ThreadLocal<TransactionManager> activeManager = new ThreadLocal<>();
+
+    /** Value of {@link System#nanoTime()} until which the reads of each thread are sent to the primary */
+    @NotNull
+    private final ThreadLocal<Long> primaryReadDeadline = new ThreadLocal<>();
+
+    /**
+     * With {@link ReplicaSelection#LEAST_LATENCY}, every this many transactions is routed round-robin
+     * so that the latencies of the other replicas are kept up to date.
+     */
+    private static final int EXPLORATION_INTERVAL = 16;
+
+    /**
+     * A replica that fails outside the transaction callback is given the latency of the slowest replica,
+     * but at least {@link #FAILURE_PENALTY_NANOS}, multiplied by this factor.
+     */
+    private static final int FAILURE_PENALTY_FACTOR = 10;
+
+    private static final long FAILURE_PENALTY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @NotNull
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    /**
+     * Moving averages of the time each replica spends outside the transaction callback, that is, acquiring
+     * the connection, starting the transaction and committing it, in nanoseconds. 0 if not yet measured.
+     */
+    @NotNull
+    private final AtomicLongArray replicaLatencies;
+
+    @NotNull
+    private volatile ReplicaSelection replicaSelection = ReplicaSelection.ROUND_ROBIN;
+
+    private volatile long readYourWritesWindowNanos = 0;
+
+    /**
+     * Constructs a manager routing transactions to given managers. If there are no replicas, all
+     * transactions are executed on the primary.
+     */
+    public RoutingTransactionManager(@NotNull TransactionManager primary, @NotNull List<? extends TransactionManager> replicas) {
+        this.primary = requireNonNull(primary);
+        this.replicas = unmodifiableList(new ArrayList<>(replicas));
+        this.replicaLatencies = new AtomicLongArray(replicas.size());
+    }
+
+    /**
+     * Returns a manager that uses a {@link DefaultTransactionManager} for the primary and each of the replicas.
+     */
+    @NotNull
+    public static RoutingTransactionManager forConnectionProviders(@NotNull ConnectionProvider primary,
+                                                                   @NotNull List<? extends ConnectionProvider> replicas) {
+        List<TransactionManager> replicaManagers = new ArrayList<>(replicas.size());
+        for (ConnectionProvider replica : replicas)
+            replicaManagers.add(new DefaultTransactionManager(replica));
+
+        return new RoutingTransactionManager(new DefaultTransactionManager(primary), replicaManagers);
+    }
+
+    @Override
+    public <T> T withTransaction(@NotNull TransactionSettings settings, @NotNull TransactionCallback<T> callback, @NotNull Dialect dialect) {
+        TransactionManager outer = activeManager.get();
+
+        if (outer != null && settings.getPropagation() != Propagation.REQUIRES_NEW)
+            return outer.withTransaction(settings, callback, dialect);
+
+        int replica = selectReplica(settings);
+
+        if (replica >= 0)
+            return withReplicaTransaction(replica, settings, callback, dialect);
+
+        try {
+            activeManager.set(primary);
+            return primary.withTransaction(settings, callback, dialect);
+        } finally {
+            setActiveManager(outer);
+
+            if (readYourWritesWindowNanos > 0 && !settings.isReadOnly())
+                primaryReadDeadline.set(nanoTime() + readYourWritesWindowNanos);
+        }
+    }
+
+    /**
+     * Executes a transaction on given replica and updates its latency. If the replica itself fails, for
+     * example because a connection can't be acquired, the failure is penalized so that the replica is
+     * not preferred. Failures thrown by the callback are not the replica's fault and are not recorded.
+     */
+    private <T> T withReplicaTransaction(int replica,
+                                         @NotNull TransactionSettings settings,
+                                         @NotNull TransactionCallback<T> callback,
+                                         @NotNull Dialect dialect) {
+        TransactionManager outer = activeManager.get();
+        TimedCallback<T> timedCallback = new TimedCallback<>(callback);
+        boolean succeeded = false;
+
+        long startTime = nanoTime();
+        try {
+            activeManager.set(replicas.get(replica));
+            T result = replicas.get(replica).withTransaction(settings, timedCallback, dialect);
+            succeeded = true;
+            return result;
+        } finally {
+            setActiveManager(outer);
+
+            if (succeeded)
+                recordLatency(replica, nanoTime() - startTime - timedCallback.elapsedNanos);
+            else if (!timedCallback.failed)
+                recordFailure(replica);
+        }
+    }
+
+    @Override
+    public <T> T withCurrentTransaction(@NotNull TransactionCallback<T> callback, @NotNull Dialect dialect) {
+        TransactionManager manager = activeManager.get();
+        if (manager == null)
+            throw new NoActiveTransactionException("Tried to perform database operation without active transaction. Database accesses should be bracketed with Database.withTransaction(...) or implicit transactions should be enabled.");
+
+        return manager.withCurrentTransaction(callback, dialect);
+    }
+
+    @Override
+    public boolean hasActiveTransaction() {
+        TransactionManager manager = activeManager.get();
+        return manager != null && manager.hasActiveTransaction();
+    }
+
+    /**
+     * Returns the index of the replica to use for a new transaction with given settings,
+     * or -1 if the transaction should be executed on the primary.
+     */
+    private int selectReplica(@NotNull TransactionSettings settings) {
+        if (!settings.isReadOnly() || replicas.isEmpty() || isWithinReadYourWritesWindow())
+            return -1;
+
+        int counter = nextReplica.getAndIncrement();
+        if (replicaSelection == ReplicaSelection.LEAST_LATENCY) {
+            if (counter % EXPLORATION_INTERVAL == 0)
+                return Math.floorMod(counter / EXPLORATION_INTERVAL, replicas.size());
+
+            int best = 0;
+            for (int i = 1; i < replicaLatencies.length(); i++)
+                if (replicaLatencies.get(i) < replicaLatencies.get(best))
+                    best = i;
+            return best;
+        } else {
+            return Math.floorMod(counter, replicas.size());
+        }
+    }
+
+    private boolean isWithinReadYourWritesWindow() {
+        Long deadline = primaryReadDeadline.get();
+        if (deadline == null)
+            return false;
+
+        if (nanoTime() - deadline < 0)
+            return true;
+
+        primaryReadDeadline.remove();
+        return false;
+    }
+
+    private void recordLatency(int replica, long nanos) {
+        // Exponentially weighted moving average, starting from the first measurement
+        long old = replicaLatencies.get(replica);
+        replicaLatencies.set(replica, (old == 0) ? Math.max(nanos, 1) : Math.max(old + (nanos - old) / 8, 1));
+    }
+
+    private void recordFailure(int replica) {
+        // Make the replica the slowest one by a wide margin, so that it is only tried again when exploring
+        long slowest = FAILURE_PENALTY_NANOS;
+        for (int i = 0; i < replicaLatencies.length(); i++)
+            slowest = Math.max(slowest, replicaLatencies.get(i));
+
+        replicaLatencies.set(replica, slowest * FAILURE_PENALTY_FACTOR);
+    }
+
+    private void setActiveManager(@Nullable TransactionManager manager) {
+        // Remove the entry instead of storing null so that idle threads don't retain it
+        if (manager != null)
+            activeManager.set(manager);
+        else
+            activeManager.remove();
+    }
+
+    @NotNull
+    public TransactionManager getPrimary() {
+        return primary;
+    }
+
+    @NotNull
+    public List<TransactionManager> getReplicas() {
+        return replicas;
+    }
+
+    @NotNull
+    public ReplicaSelection getReplicaSelection() {
+        return replicaSelection;
+    }
+
+    /**
+     * Sets the strategy for selecting replicas for read-only transactions. The default is
+     * {@link ReplicaSelection#ROUND_ROBIN}.
+     */
+    public void setReplicaSelection(@NotNull ReplicaSelection replicaSelection) {
+        this.replicaSelection = requireNonNull(replicaSelection);
+    }
+
+    @NotNull
+    public Duration getReadYourWritesWindow() {
+        return Duration.ofNanos(readYourWritesWindowNanos);
+    }
+
+    /**
+     * Sets the time after a transaction on the primary during which read-only transactions of the same
+     * thread are also executed on the primary, so that the thread sees its own writes even if the replicas
+     * lag behind. Zero disables this. By default the window is zero.
+     */
+    public void setReadYourWritesWindow(@NotNull Duration window) {
+        if (window.isNegative()) throw new IllegalArgumentException("negative window: " + window);
+
+        this.readYourWritesWindowNanos = window.toNanos();
+    }
+
+    /**
+     * Callback that measures the time spent in the wrapped callback, so that only the time spent by
+     * the database is counted in the latency, and tells whether the wrapped callback failed.
+     */
+    private static final class TimedCallback<T> implements TransactionCallback<T> {
+
+        @NotNull
+        private final TransactionCallback<T> callback;
+
+        private long elapsedNanos;
+
+        private boolean failed;
+
+        TimedCallback(@NotNull TransactionCallback<T> callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public T execute(@NotNull TransactionContext tx) throws SQLException {
+            long startTime = nanoTime();
+            try {
+                return callback.execute(tx);
+            } catch (SQLException | RuntimeException | Error e) {
+                failed = true;
+                throw e;
+            } finally {
+                elapsedNanos = nanoTime() - startTime;
+            }
+        }
+    }
+}
@@ -26,6 +26,7 @@ import org.dalesbred.Database;
 import org.dalesbred.DatabaseException;
 import org.dalesbred.dialect.Dialect;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -67,26 +68,51 @@ public final class SingleConnectionTransactionManager extends AbstractTransactio
     }
 
     @Override
-    protected <T> T withNewTransaction(@NotNull TransactionCallback<T> callback, @NotNull Dialect dialect, @NotNull Isolation isolation) {
+    protected <T> T withNewTransaction(@NotNull TransactionCallback<T> callback, @NotNull Dialect dialect, @NotNull Isolation isolation, boolean readOnly) {
         assert !currentTransaction.isPresent();
 
+        Throwable failure = null;
         try {
             connection.setAutoCommit(false);
             if (isolation != Isolation.DEFAULT)
                 connection.setTransactionIsolation(isolation.getJdbcLevel());
+            if (readOnly)
+                dialect.setReadOnly(connection, true);
 
             DefaultTransaction newTransaction = new DefaultTransaction(connection);
             currentTransaction = Optional.of(newTransaction);
             return newTransaction.execute(callback, dialect);
         } catch (SQLException e) {
-            throw dialect.convertException(e);
+            DatabaseException exception = dialect.convertException(e);
+            failure = exception;
+            throw exception;
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
         } finally {
             currentTransaction = Optional.empty();
+            if (readOnly)
+                resetReadOnly(dialect, failure);
+        }
+    }
+
+    /**
+     * Restores the connection to read-write mode after a read-only transaction. If the transaction has
+     * already failed, a failure to reset is added as a suppressed exception instead of replacing it.
+     */
+    private void resetReadOnly(@NotNull Dialect dialect, @Nullable Throwable failure) {
+        try {
+            dialect.setReadOnly(connection, false);
+        } catch (SQLException e) {
+            if (failure != null)
+                failure.addSuppressed(e);
+            else
+                throw dialect.convertException(e);
         }
     }
 
     @Override
-    protected <T> T withSuspendedTransaction(@NotNull TransactionCallback<T> callback, @NotNull Isolation isolation, @NotNull Dialect dialect) {
+    protected <T> T withSuspendedTransaction(@NotNull TransactionCallback<T> callback, @NotNull Isolation isolation, boolean readOnly, @NotNull Dialect dialect) {
         throw new DatabaseException("SingleConnectionTransactionManager does not support Suspended transactions.");
     }
 }
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.transaction;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+
+import static java.util.Objects.requireNonNull;
+import static org.dalesbred.internal.jdbc.SqlUtils.prepareStatementReturningGeneratedKeys;
+
+/**
+ * LRU-cache of prepared statements of a single transaction.
+ * <p>
+ * Statements are checked out of the cache while they are being used, so nested uses of the same SQL
+ * (e.g. executing a query while processing the results of the same query) get separate statements.
+ * Idle statements are kept around until the cache is closed, which should be done when the transaction
+ * completes. Like the connection itself, the cache is not thread-safe.
+ */
+final class StatementCache {
+
+    @NotNull
+    private final Connection connection;
+
+    private final int maxSize;
+
+    /** Statements that are not in use, ordered from least recently to most recently used */
+    @NotNull
+    private final LinkedHashMap<StatementKey, CachedStatement> idleStatements = new LinkedHashMap<>(16, 0.75f, true);
+
+    @NotNull
+    private final Map<PreparedStatement, CachedStatement> statementsInUse = new IdentityHashMap<>();
+
+    StatementCache(@NotNull Connection connection, int maxSize) {
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize must be positive, but was: " + maxSize);
+
+        this.connection = requireNonNull(connection);
+        this.maxSize = maxSize;
+    }
+
+    @NotNull
+    PreparedStatement prepareStatement(@NotNull String sql, @Nullable List<String> generatedKeyColumns) throws SQLException {
+        StatementKey key = new StatementKey(sql, generatedKeyColumns);
+
+        CachedStatement cached = idleStatements.remove(key);
+        if (cached == null) {
+            PreparedStatement statement = generatedKeyColumns != null
+                    ? prepareStatementReturningGeneratedKeys(connection, sql, generatedKeyColumns)
+                    : connection.prepareStatement(sql);
+            cached = new CachedStatement(key, statement);
+        }
+
+        statementsInUse.put(cached.statement, cached);
+        return cached.statement;
+    }
+
+    void releaseStatement(@NotNull PreparedStatement statement) throws SQLException {
+        CachedStatement cached = statementsInUse.remove(statement);
+        if (cached == null || statement.isClosed()) {
+            statement.close();
+            return;
+        }
+
+        try {
+            cached.reset();
+        } catch (SQLException | RuntimeException e) {
+            // The statement is no longer tracked by the cache, so it must be closed here or it would leak
+            try {
+                statement.close();
+            } catch (SQLException closeException) {
+                e.addSuppressed(closeException);
+            }
+            throw e;
+        }
+
+        CachedStatement previous = idleStatements.put(cached.key, cached);
+        if (previous != null)
+            previous.statement.close();
+
+        for (Iterator<CachedStatement> it = idleStatements.values().iterator(); it.hasNext() && idleStatements.size() > maxSize; ) {
+            CachedStatement eldest = it.next();
+            it.remove();
+            eldest.statement.close();
+        }
+    }
+
+    /**
+     * Closes all statements of the cache. Tries to close every statement even if closing some of them fails.
+     */
+    void close() throws SQLException {
+        List<PreparedStatement> statements = new ArrayList<>(idleStatements.size() + statementsInUse.size());
+        for (CachedStatement cached : idleStatements.values())
+            statements.add(cached.statement);
+        statements.addAll(statementsInUse.keySet());
+        idleStatements.clear();
+        statementsInUse.clear();
+
+        SQLException exception = null;
+        for (PreparedStatement statement : statements) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                if (exception == null)
+                    exception = e;
+                else
+                    exception.addSuppressed(e);
+            }
+        }
+
+        if (exception != null)
+            throw exception;
+    }
+
+    /**
+     * A cached statement along with the settings it had when it was prepared, so that changes
+     * made by one user of the statement don't leak to the next one.
+     */
+    private static final class CachedStatement {
+
+        @NotNull
+        private final StatementKey key;
+
+        @NotNull
+        private final PreparedStatement statement;
+
+        private final int fetchSize;
+        private final int maxRows;
+        private final int queryTimeout;
+
+        CachedStatement(@NotNull StatementKey key, @NotNull PreparedStatement statement) throws SQLException {
+            this.key = key;
+            this.statement = statement;
+            this.fetchSize = statement.getFetchSize();
+            this.maxRows = statement.getMaxRows();
+            this.queryTimeout = statement.getQueryTimeout();
+        }
+
+        void reset() throws SQLException {
+            statement.clearParameters();
+            statement.clearBatch();
+
+            if (statement.getFetchSize() != fetchSize)
+                statement.setFetchSize(fetchSize);
+            if (statement.getMaxRows() != maxRows)
+                statement.setMaxRows(maxRows);
+            if (statement.getQueryTimeout() != queryTimeout)
+                statement.setQueryTimeout(queryTimeout);
+        }
+    }
+
+    private static final class StatementKey {
+
+        @NotNull
+        private final String sql;
+
+        @Nullable
+        private final List<String> generatedKeyColumns;
+
+        StatementKey(@NotNull String sql, @Nullable List<String> generatedKeyColumns) {
+            this.sql = sql;
+            this.generatedKeyColumns = generatedKeyColumns != null ? new ArrayList<>(generatedKeyColumns) : null;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+
+            if (obj instanceof StatementKey) {
+                StatementKey rhs = (StatementKey) obj;
+                return sql.equals(rhs.sql) && Objects.equals(generatedKeyColumns, rhs.generatedKeyColumns);
+            }
+
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * sql.hashCode() + Objects.hashCode(generatedKeyColumns);
+        }
+    }
+}
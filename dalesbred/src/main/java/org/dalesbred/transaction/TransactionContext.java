@@ -22,9 +22,13 @@
 
 package org.dalesbred.transaction;
 
+import org.dalesbred.internal.jdbc.SqlUtils;
 import org.jetbrains.annotations.NotNull;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
 
 /**
  * Provides transactions with access to the context.
@@ -43,4 +47,39 @@ public interface TransactionContext {
     void setRollbackOnly();
 
     boolean isRollbackOnly();
+
+    /**
+     * Returns the nanoseconds elapsed since the transaction was started, or -1 if not known.
+     */
+    default long getElapsedNanos() {
+        return -1;
+    }
+
+    /**
+     * Prepares a statement for given SQL. The transaction may return a statement prepared earlier
+     * for the same SQL, so the statement must be released with {@link #releaseStatement(PreparedStatement)}
+     * instead of closing it directly.
+     */
+    @NotNull
+    default PreparedStatement prepareStatement(@NotNull String sql) throws SQLException {
+        return getConnection().prepareStatement(sql);
+    }
+
+    /**
+     * Prepares a statement that returns generated keys from given columns. If no columns are given,
+     * the returned columns depend on the database. The statement must be released with
+     * {@link #releaseStatement(PreparedStatement)} instead of closing it directly.
+     */
+    @NotNull
+    default PreparedStatement prepareStatementReturningGeneratedKeys(@NotNull String sql, @NotNull List<String> columnNames) throws SQLException {
+        return SqlUtils.prepareStatementReturningGeneratedKeys(getConnection(), sql, columnNames);
+    }
+
+    /**
+     * Releases a statement obtained from this context. The statement is either closed or retained
+     * for reuse until the end of the transaction.
+     */
+    default void releaseStatement(@NotNull PreparedStatement statement) throws SQLException {
+        statement.close();
+    }
 }
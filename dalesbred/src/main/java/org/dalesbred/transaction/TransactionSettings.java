@@ -40,6 +40,8 @@ public final class TransactionSettings {
     @NotNull
     private Isolation isolation = Isolation.DEFAULT;
 
+    private boolean readOnly = false;
+
     @NotNull
     public Propagation getPropagation() {
         return propagation;
@@ -64,9 +66,23 @@ public final class TransactionSettings {
         this.isolation = isolation;
     }
 
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Marks the transaction as read-only. The mode is passed to the database through
+     * {@link org.dalesbred.dialect.Dialect#setReadOnly}, which lets the database skip bookkeeping needed
+     * only for writes, and a {@link RoutingTransactionManager} executes read-only transactions on replicas.
+     * Transactions that join an existing transaction keep its mode.
+     */
+    public void setReadOnly(boolean readOnly) {
+        this.readOnly = readOnly;
+    }
+
     @NotNull
     @Override
     public String toString() {
-        return "[propagation=" + propagation + ", isolation=" + isolation + ']';
+        return "[propagation=" + propagation + ", isolation=" + isolation + ", readOnly=" + readOnly + ']';
     }
 }
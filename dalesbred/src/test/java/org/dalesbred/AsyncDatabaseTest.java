@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class AsyncDatabaseTest {
+
+    private final Database db = TestDatabaseProvider.createInMemoryHSQLDatabase();
+
+    private final AsyncDatabase asyncDb = AsyncDatabase.withThreadPool(db, 2, 2);
+
+    @After
+    public void closeAsyncDatabase() {
+        asyncDb.close();
+    }
+
+    @Test
+    public void queriesAreExecutedOnExecutor() throws Exception {
+        assertThat(asyncDb.findUnique(Integer.class, "values (42)").get(), is(42));
+        assertThat(asyncDb.execute(database -> Thread.currentThread().getName()).get(), startsWith("dalesbred-jdbc-"));
+    }
+
+    @Test
+    public void updatesAndBatches() throws Exception {
+        db.update("drop table if exists async_test");
+        db.update("create table async_test (id int primary key, name varchar(20))");
+
+        assertThat(asyncDb.update("insert into async_test (id, name) values (?, ?)", 1, "foo").get(), is(1));
+        asyncDb.updateBatch("insert into async_test (id, name) values (?, ?)", asList(asList(2, "bar"), asList(3, "baz"))).get();
+
+        List<String> names = asyncDb.findAll(String.class, "select name from async_test order by id").get();
+        assertThat(names, is(asList("foo", "bar", "baz")));
+    }
+
+    @Test
+    public void exceptionsAreReportedThroughFuture() throws Exception {
+        try {
+            asyncDb.findUnique(Integer.class, "select * from nonexistent_table").get();
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(DatabaseException.class)));
+        }
+    }
+
+    @Test
+    public void operationsAreRejectedWhenTooManyAreInFlight() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+
+        CompletableFuture<Boolean> first = asyncDb.execute(database -> await(latch));
+        CompletableFuture<Boolean> second = asyncDb.execute(database -> await(latch));
+        CompletableFuture<Boolean> third = asyncDb.execute(database -> await(latch));
+
+        assertThat(asyncDb.getInFlightCount(), is(2));
+        assertThat(third.isCompletedExceptionally(), is(true));
+        try {
+            third.get();
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(RejectedExecutionException.class)));
+        }
+
+        latch.countDown();
+        assertThat(first.get(), is(true));
+        assertThat(second.get(), is(true));
+    }
+
+    @Test
+    public void slowOperationsTimeOut() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            asyncDb.execute(Duration.ofMillis(50), database -> await(latch)).get();
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(TimeoutException.class)));
+        } finally {
+            latch.countDown();
+        }
+    }
+
+    @Test
+    public void defaultTimeoutIsUsedWhenNoneIsSpecified() throws Exception {
+        asyncDb.setDefaultTimeout(Duration.ofMillis(50));
+
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            asyncDb.execute(database -> await(latch)).get();
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(TimeoutException.class)));
+        } finally {
+            latch.countDown();
+        }
+    }
+
+    private static boolean await(@NotNull CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+}
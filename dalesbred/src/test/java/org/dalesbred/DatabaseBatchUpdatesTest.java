@@ -30,7 +30,11 @@ import org.junit.Test;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
@@ -76,6 +80,117 @@ public class DatabaseBatchUpdatesTest {
         assertThat(result, is(asList(0, 1, 2)));
     }
 
+    @Test
+    public void batchUpdateInChunks() {
+        db.update("drop table if exists dictionary");
+        db.update("create temporary table dictionary (word varchar(64) primary key)");
+        db.setBatchChunkSize(2);
+
+        List<List<String>> data = asList(singletonList("foo"), singletonList("bar"), singletonList("baz"),
+                                         singletonList("quux"), singletonList("xyzzy"));
+
+        List<String> progress = new ArrayList<>();
+        int[] result = db.updateBatch("insert into dictionary (word) values (?)", data,
+                (chunkRowCount, totalRowCount) -> progress.add(chunkRowCount + "/" + totalRowCount));
+
+        assertThat(result, is(new int[] { 1, 1, 1, 1, 1 }));
+        assertThat(progress, is(asList("2/2", "2/4", "1/5")));
+        assertThat(db.findUniqueInt("select count(*) from dictionary"), is(5));
+    }
+
+    @Test
+    public void batchUpdateWithGeneratedKeysInChunks() {
+        db.update("drop table if exists my_table");
+        db.update("create temporary table my_table (id identity primary key, str varchar(64), num int)");
+        db.setBatchChunkSize(2);
+
+        List<List<?>> argLists = asList(
+                asList("foo", 1),
+                asList("bar", 2),
+                asList("baz", 3),
+                asList("quux", 4),
+                asList("xyzzy", 5));
+
+        List<Integer> result = db.updateBatchAndProcessGeneratedKeys(new CollectKeysResultSetProcessor(), singletonList("ID"), "INSERT INTO my_table (str, num) VALUES (?,?)", argLists);
+
+        assertThat(result, is(asList(0, 1, 2, 3, 4)));
+    }
+
+    @Test
+    public void batchUpdateFromIterator() {
+        db.update("drop table if exists dictionary");
+        db.update("create temporary table dictionary (word varchar(64) primary key)");
+        db.setBatchChunkSize(2);
+
+        Iterator<List<String>> data = asList(singletonList("foo"), singletonList("bar"), singletonList("baz")).iterator();
+
+        List<Long> progress = new ArrayList<>();
+        int[] result = db.updateBatch("insert into dictionary (word) values (?)", data,
+                (chunkRowCount, totalRowCount) -> progress.add(totalRowCount));
+
+        assertThat(result, is(new int[] { 1, 1, 1 }));
+        assertThat(progress, is(asList(2L, 3L)));
+        assertThat(db.findAll(String.class, "select word from dictionary order by word"), is(asList("bar", "baz", "foo")));
+    }
+
+    @Test
+    public void batchUpdateFromStreamOfItems() {
+        db.update("drop table if exists numbers");
+        db.update("create temporary table numbers (num int primary key, square int)");
+
+        int[] result = db.updateBatch("insert into numbers (num, square) values (?, ?)",
+                IntStream.range(0, 2500).boxed(), i -> asList(i, i * i));
+
+        assertThat(result.length, is(2500));
+        assertThat(db.findUniqueInt("select count(*) from numbers"), is(2500));
+        assertThat(db.findUniqueInt("select square from numbers where num = 42"), is(42 * 42));
+    }
+
+    @Test
+    public void batchUpdateFromStreamOfArgumentLists() {
+        db.update("drop table if exists dictionary");
+        db.update("create temporary table dictionary (word varchar(64) primary key)");
+
+        int[] result = db.updateBatch("insert into dictionary (word) values (?)", Stream.of("foo", "bar").map(Collections::singletonList));
+
+        assertThat(result, is(new int[] { 1, 1 }));
+    }
+
+    @Test
+    public void batchInsertsAreRewrittenToMultiRowInserts() {
+        db.update("drop table if exists numbers");
+        db.update("create temporary table numbers (num int primary key, square int)");
+        db.setMultiRowInsertWidth(3);
+        db.setBatchChunkSize(3);
+
+        List<Long> progress = new ArrayList<>();
+        int[] result = db.updateBatch("insert into numbers (num, square) values (?, ?)",
+                IntStream.range(0, 7).mapToObj(i -> asList(i, i * i)).iterator(),
+                (chunkRowCount, totalRowCount) -> progress.add(totalRowCount));
+
+        assertThat(result, is(new int[] { 1, 1, 1, 1, 1, 1, 1 }));
+        assertThat(progress, is(asList(3L, 6L, 7L)));
+        assertThat(db.findAll(Integer.class, "select square from numbers order by num"), is(asList(0, 1, 4, 9, 16, 25, 36)));
+    }
+
+    @Test
+    public void statementsThatCanNotBeRewrittenAreExecutedAsNormalBatches() {
+        db.update("drop table if exists dictionary");
+        db.update("create temporary table dictionary (word varchar(64) primary key)");
+        db.setMultiRowInsertWidth(10);
+
+        db.updateBatch("insert into dictionary (word) values (?)", asList(singletonList("foo"), singletonList("bar")));
+        int[] result = db.updateBatch("update dictionary set word = upper(word) where word = ?", asList(singletonList("foo"), singletonList("bar")));
+
+        assertThat(result, is(new int[] { 1, 1 }));
+        assertThat(db.findAll(String.class, "select word from dictionary order by word"), is(asList("BAR", "FOO")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeBatchChunkSizeIsRejected() {
+        db.setBatchChunkSize(-1);
+    }
+
     @Test
     public void exceptionsContainReferenceToOriginalQuery() {
         List<List<String>> data = new ArrayList<>();
@@ -29,6 +29,7 @@ import org.junit.Test;
 import java.util.Objects;
 import java.util.regex.Pattern;
 
+import static java.util.Arrays.asList;
 import static java.util.Objects.requireNonNull;
 import static org.junit.Assert.assertEquals;
 
@@ -58,6 +59,18 @@ public class DatabaseCustomConversionTest {
         assertEquals("user@example.org", db.findUnique(String.class, "select email from custom_save_conversions_test"));
     }
 
+    @Test
+    public void saveConversionsRegisteredAfterBindingValuesOfSameType() {
+        db.update("drop table if exists custom_save_conversions_test");
+        db.update("create temporary table custom_save_conversions_test (value varchar(32))");
+
+        db.update("insert into custom_save_conversions_test (value) values (?)", 42);
+        db.getTypeConversionRegistry().registerConversionToDatabase(Integer.class, i -> "number " + i);
+        db.update("insert into custom_save_conversions_test (value) values (?)", 7);
+
+        assertEquals(asList("42", "number 7"), db.findAll(String.class, "select value from custom_save_conversions_test order by value"));
+    }
+
     public static class EmailAddress {
 
         @NotNull
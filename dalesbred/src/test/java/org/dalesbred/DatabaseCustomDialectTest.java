@@ -24,9 +24,13 @@ package org.dalesbred;
 
 import org.dalesbred.dialect.DefaultDialect;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
 import static org.junit.Assert.assertEquals;
 
 public class DatabaseCustomDialectTest {
@@ -46,6 +50,27 @@ public class DatabaseCustomDialectTest {
         assertEquals("FOO", db.findUnique(String.class, "select text from my_table"));
     }
 
+    @Test
+    public void customArgumentBinding() {
+        Database db = new Database(TestDatabaseProvider.createInMemoryHSQLConnectionProvider(), new PrefixingDialect());
+
+        db.withVoidTransaction(tx -> {
+            db.update("drop table if exists my_table");
+            db.update("create temporary table my_table (text varchar(64))");
+
+            db.update("insert into my_table values (?)", "foo");
+
+            assertEquals("prefix-foo", db.findUnique(String.class, "select text from my_table"));
+        });
+    }
+
+    private static final class PrefixingDialect extends DefaultDialect {
+        @Override
+        public void bindArgument(@NotNull PreparedStatement ps, int index, @Nullable Object value) throws SQLException {
+            super.bindArgument(ps, index, "prefix-" + value);
+        }
+    }
+
     private static final class UppercaseDialect extends DefaultDialect {
         @NotNull
         @Override
@@ -23,26 +23,29 @@
 package org.dalesbred;
 
 import org.dalesbred.query.SqlQuery;
-import org.junit.After;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 
 public class DatabaseExceptionTest {
 
-    @After
-    public void clearDebugContext() {
-        DebugContext.setCurrentQuery(null);
-    }
-
     @Test
     public void queryIsIncludedInToString() {
-        DebugContext.setCurrentQuery(SqlQuery.query("select * from foo where id=?", 42));
-        assertEquals("org.dalesbred.DatabaseException: exception message (query: select * from foo where id=? [42])", new DatabaseException("exception message").toString());
+        DatabaseException exception = new DatabaseException("exception message");
+        exception.setQueryIfAbsent(SqlQuery.query("select * from foo where id=?", 42));
+        assertEquals("org.dalesbred.DatabaseException: exception message (query: select * from foo where id=? [42])", exception.toString());
     }
 
     @Test
     public void ifQueryIsNotPresentItIsNotIncluded() {
         assertEquals("org.dalesbred.DatabaseException: exception message", new DatabaseException("exception message").toString());
     }
+
+    @Test
+    public void queryOfNestedExecutionIsKept() {
+        DatabaseException exception = new DatabaseException("exception message");
+        exception.setQueryIfAbsent(SqlQuery.query("select 1"));
+        exception.setQueryIfAbsent(SqlQuery.query("select 2"));
+        assertEquals(SqlQuery.query("select 1"), exception.getQuery());
+    }
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred;
+
+import org.dalesbred.internal.instantiation.InstantiationFailureException;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class DatabasePrimitiveMappingTest {
+
+    private final Database db = TestDatabaseProvider.createInMemoryHSQLDatabase();
+
+    @Rule
+    public final TransactionalTestsRule rule = new TransactionalTestsRule(db);
+
+    @Test
+    public void primitiveConstructorParametersAndFields() {
+        db.update("drop table if exists primitive_mapping_test");
+        db.update("create temporary table primitive_mapping_test (i int, l bigint, d double, b boolean, s smallint, name varchar(20))");
+        db.update("insert into primitive_mapping_test values (1, 10000000000, 1.5, true, 2, 'foo'), (-200, -1, 0, false, 0, 'bar')");
+
+        List<PrimitiveRow> rows = db.findAll(PrimitiveRow.class, "select i, l, d, b, s, name from primitive_mapping_test order by i desc");
+
+        assertThat(rows.size(), is(2));
+        assertThat(rows.get(0).i, is(1));
+        assertThat(rows.get(0).l, is(10000000000L));
+        assertThat(rows.get(0).d, is(1.5));
+        assertThat(rows.get(0).b, is(true));
+        assertThat(rows.get(0).s, is(2));
+        assertThat(rows.get(0).name, is("foo"));
+        assertThat(rows.get(1).i, is(-200));
+        assertThat(rows.get(1).l, is(-1L));
+        assertThat(rows.get(1).d, is(0.0));
+        assertThat(rows.get(1).b, is(false));
+        assertThat(rows.get(1).name, is("bar"));
+    }
+
+    @Test
+    public void primitiveMapValues() {
+        Map<String, PrimitiveRow> map = db.findMap(String.class, PrimitiveRow.class,
+                "select 'foo', 1 as i, cast(2 as bigint) as l, cast(3 as double) as d, true as b from (values (0))");
+
+        assertThat(map.get("foo").i, is(1));
+        assertThat(map.get("foo").l, is(2L));
+        assertThat(map.get("foo").d, is(3.0));
+        assertThat(map.get("foo").b, is(true));
+    }
+
+    @Test(expected = InstantiationFailureException.class)
+    public void nullForPrimitiveParameter() {
+        db.findUnique(PrimitiveRow.class, "select cast(null as int) as i, cast(1 as bigint) as l, cast(1 as double) as d, true as b from (values (0))");
+    }
+
+    @Test(expected = InstantiationFailureException.class)
+    public void nullForPrimitiveField() {
+        db.findUnique(PrimitiveRow.class, "select 1 as i, cast(1 as bigint) as l, cast(1 as double) as d, true as b, cast(null as int) as s from (values (0))");
+    }
+
+    public static class PrimitiveRow {
+        private final int i;
+        private final long l;
+        private final double d;
+        private final boolean b;
+        public int s;
+        public String name;
+
+        public PrimitiveRow(int i, long l, double d, boolean b) {
+            this.i = i;
+            this.l = l;
+            this.d = d;
+            this.b = b;
+        }
+    }
+}
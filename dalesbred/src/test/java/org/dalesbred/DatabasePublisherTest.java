@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred;
+
+import org.dalesbred.result.ResultFlow.Subscriber;
+import org.dalesbred.result.ResultFlow.Subscription;
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class DatabasePublisherTest {
+
+    private final Database db = TestDatabaseProvider.createInMemoryHSQLDatabase();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @Before
+    public void createTable() {
+        db.update("drop table if exists publisher_test");
+        db.update("create table publisher_test (id int primary key)");
+
+        List<List<?>> rows = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+            rows.add(asList(i));
+        db.updateBatch("insert into publisher_test (id) values (?)", rows);
+    }
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void rowsArePublishedAsRequested() throws Exception {
+        RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+        db.publisher(Integer.class, executor, "select id from publisher_test order by id").subscribe(subscriber);
+
+        subscriber.subscription.request(3);
+        assertThat(subscriber.nextItem(), is(0));
+        assertThat(subscriber.nextItem(), is(1));
+        assertThat(subscriber.nextItem(), is(2));
+        assertThat(subscriber.items.poll(50, TimeUnit.MILLISECONDS), is(nullValue()));
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        for (int i = 3; i < 10; i++)
+            assertThat(subscriber.nextItem(), is(i));
+
+        assertTrue(subscriber.completed.await(10, TimeUnit.SECONDS));
+        assertThat(subscriber.error, is(nullValue()));
+    }
+
+    @Test
+    public void cancellingReleasesTheQuery() throws Exception {
+        RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+        db.publisher(Integer.class, executor, "select id from publisher_test order by id").subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+        assertThat(subscriber.nextItem(), is(0));
+
+        subscriber.subscription.cancel();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertThat(subscriber.completed.getCount(), is(1L));
+        assertThat(subscriber.error, is(nullValue()));
+    }
+
+    @Test
+    public void queryIsNotExecutedBeforeRequest() throws Exception {
+        RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+        db.publisher(Integer.class, executor, "select id from nonexistent_table").subscribe(subscriber);
+
+        assertThat(subscriber.completed.await(50, TimeUnit.MILLISECONDS), is(false));
+        assertThat(subscriber.error, is(nullValue()));
+
+        subscriber.subscription.request(1);
+        assertTrue(subscriber.completed.await(10, TimeUnit.SECONDS));
+        assertThat(subscriber.error, is(instanceOf(DatabaseException.class)));
+    }
+
+    @Test
+    public void nonPositiveRequestsFailTheSubscription() throws Exception {
+        RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+        db.publisher(Integer.class, executor, "select id from publisher_test").subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+
+        assertTrue(subscriber.completed.await(10, TimeUnit.SECONDS));
+        assertThat(subscriber.error, is(instanceOf(IllegalArgumentException.class)));
+    }
+
+    private static final class RecordingSubscriber<T> implements Subscriber<T> {
+
+        private volatile Subscription subscription;
+
+        private final BlockingQueue<T> items = new LinkedBlockingQueue<>();
+
+        /** Counted down on completion and on error */
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        private volatile Throwable error;
+
+        @Override
+        public void onSubscribe(@NotNull Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(T item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(@NotNull Throwable throwable) {
+            error = throwable;
+            completed.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+
+        T nextItem() throws InterruptedException {
+            T item = items.poll(10, TimeUnit.SECONDS);
+            if (item == null)
+                throw new AssertionError("no item was published", error);
+            return item;
+        }
+    }
+}
@@ -65,6 +65,38 @@ public class DatabaseResultTableTest {
         assertThat(table.toString(), is("ResultTable [columns=[NUM: java.lang.Integer, STR: java.lang.String, BOOL: java.lang.Boolean], rows=1]"));
     }
 
+    @Test
+    public void fetchColumnarResultTable() {
+        ResultTable table = db.findColumnarTable("select * from (values " +
+                "(1, cast(10000000000 as bigint), cast(1.5 as double), true, 'foo'), " +
+                "(cast(null as int), cast(null as bigint), cast(null as double), cast(null as boolean), cast(null as varchar(10))), " +
+                "(0, cast(0 as bigint), cast(0 as double), false, 'bar')) v (i, l, d, b, s)");
+
+        assertThat(table.getColumnNames(), is(asList("I", "L", "D", "B", "S")));
+        assertThat(table.getColumnTypes(), is(types(Integer.class, Long.class, Double.class, Boolean.class, String.class)));
+
+        assertThat(table.getRowCount(), is(3));
+        assertThat(table.getRows().get(0).asList(), is(values(1, 10000000000L, 1.5, true, "foo")));
+        assertThat(table.getRows().get(1).asList(), is(values(null, null, null, null, null)));
+        assertThat(table.getRows().get(2).asList(), is(values(0, 0L, 0.0, false, "bar")));
+        assertEquals(10000000000L, table.get(0, 1));
+        assertEquals("bar", table.get(2, "s"));
+
+        int rows = 0;
+        for (ResultTable.ResultRow row : table) {
+            assertThat(row.asList().size(), is(5));
+            rows++;
+        }
+        assertThat(rows, is(3));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void columnarResultTableChecksRowBounds() {
+        ResultTable table = db.findColumnarTable("select * from (values (1), (2)) v");
+
+        table.get(2, 0);
+    }
+
     @NotNull
     private static List<Object> values(Object... values) {
         return asList(values);
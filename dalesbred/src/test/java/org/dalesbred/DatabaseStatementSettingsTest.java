@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static org.dalesbred.query.SqlQuery.query;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class DatabaseStatementSettingsTest {
+
+    private final Database db = TestDatabaseProvider.createInMemoryHSQLDatabase();
+
+    @Rule
+    public final TransactionalTestsRule rule = new TransactionalTestsRule(db);
+
+    @Before
+    public void createData() {
+        db.update("drop table if exists numbers");
+        db.update("create temporary table numbers (num int)");
+        db.updateBatch("insert into numbers (num) values (?)", asList(asList(1), asList(2), asList(3), asList(4)));
+    }
+
+    @Test
+    public void maxRowsOfQueryLimitsResults() {
+        assertThat(db.findAll(Integer.class, query("select num from numbers order by num").withMaxRows(2)), is(asList(1, 2)));
+    }
+
+    @Test
+    public void defaultMaxRowsLimitsResults() {
+        db.setDefaultMaxRows(3);
+
+        assertThat(db.findAll(Integer.class, "select num from numbers order by num"), is(asList(1, 2, 3)));
+    }
+
+    @Test
+    public void settingsOfQueryOverrideDefaults() {
+        db.setDefaultMaxRows(1);
+
+        assertThat(db.findAll(Integer.class, query("select num from numbers order by num").withMaxRows(0)), is(asList(1, 2, 3, 4)));
+    }
+
+    @Test
+    public void fetchSizeAndTimeoutAreAccepted() {
+        db.setDefaultFetchSize(2);
+        db.setDefaultQueryTimeout(10);
+
+        assertThat(db.findAll(Integer.class, query("select num from numbers order by num").withFetchSize(1).withQueryTimeout(5)), is(asList(1, 2, 3, 4)));
+        assertThat(db.update("delete from numbers where num > ?", 2), is(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeDefaultsAreRejected() {
+        db.setDefaultQueryTimeout(-1);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred;
+
+import org.dalesbred.annotation.Reflective;
+import org.dalesbred.query.SqlQuery;
+import org.dalesbred.transaction.NoActiveTransactionException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class DatabaseStreamingTest {
+
+    private final Database db = TestDatabaseProvider.createInMemoryHSQLDatabase();
+
+    @Before
+    public void createData() {
+        db.update("drop table if exists department");
+        db.update("create table department (id int primary key, name varchar(64) not null)");
+        db.update("insert into department (id, name) values (1, 'foo'), (2, 'bar'), (3, 'baz')");
+    }
+
+    @Test
+    public void streamMapsRowsWithClass() {
+        List<String> names = db.withTransaction(tx -> {
+            try (Stream<Department> stream = db.stream(Department.class, "select id, name from department order by id")) {
+                return stream.map(d -> d.name).collect(toList());
+            }
+        });
+
+        assertThat(names, is(asList("foo", "bar", "baz")));
+    }
+
+    @Test
+    public void streamMapsRowsWithRowMapper() {
+        List<Integer> ids = db.withTransaction(tx -> {
+            try (Stream<Integer> stream = db.stream(rs -> rs.getInt(1) * 10, "select id from department where id > ? order by id", 1)) {
+                return stream.collect(toList());
+            }
+        });
+
+        assertThat(ids, is(asList(20, 30)));
+    }
+
+    @Test
+    public void streamCanBeClosedBeforeExhausting() {
+        List<Integer> ids = db.withTransaction(tx -> {
+            try (Stream<Integer> stream = db.stream(Integer.class, "select id from department order by id")) {
+                return stream.limit(1).collect(toList());
+            }
+        });
+
+        assertThat(ids, is(asList(1)));
+    }
+
+    @Test
+    public void exceptionsThrownWhileConsumingStreamContainQuery() {
+        SqlQuery query = SqlQuery.query("select name from department order by id");
+
+        db.withVoidTransaction(tx -> {
+            try (Stream<Integer> stream = db.stream(rs -> rs.getInt(1), query)) {
+                stream.collect(toList());
+                fail("Expected DatabaseException");
+            } catch (DatabaseException e) {
+                assertThat(e.getQuery(), is(query));
+            }
+        });
+    }
+
+    @Test(expected = NoActiveTransactionException.class)
+    public void streamingRequiresActiveTransaction() {
+        db.stream(Integer.class, "select id from department");
+    }
+
+    @Test
+    public void forEachPassesMappedRowsToConsumer() {
+        List<String> names = new ArrayList<>();
+
+        db.forEach(String.class, names::add, "select name from department order by id desc");
+
+        assertThat(names, is(asList("baz", "bar", "foo")));
+    }
+
+    public static class Department {
+        final int id;
+        final String name;
+
+        @Reflective
+        public Department(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+}
@@ -28,10 +28,12 @@ import org.dalesbred.result.EmptyResultException;
 import org.dalesbred.result.NonUniqueResultException;
 import org.dalesbred.result.ResultSetProcessor;
 import org.dalesbred.result.RowMapper;
+import org.dalesbred.result.UnexpectedResultException;
 import org.junit.Rule;
 import org.junit.Test;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -66,6 +68,38 @@ public class DatabaseTest {
         assertThat(db.findUnique(Boolean.class, "values (cast(null as boolean))"), is(nullValue()));
     }
 
+    @Test
+    public void primitiveArrayQueries() {
+        db.update("drop table if exists primitive_array_test");
+        db.update("create temporary table primitive_array_test (id int, amount double)");
+
+        List<List<?>> rows = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+            rows.add(asList(i, i / 2.0));
+        db.updateBatch("insert into primitive_array_test (id, amount) values (?, ?)", rows);
+
+        int[] ints = db.findInts("select id from primitive_array_test order by id");
+        long[] longs = db.findLongs("select id from primitive_array_test where id < ? order by id", 3);
+        double[] doubles = db.findDoubles("select amount from primitive_array_test order by id");
+
+        assertThat(ints.length, is(100));
+        assertThat(ints[99], is(99));
+        assertArrayEquals(new long[] { 0, 1, 2 }, longs);
+        assertThat(doubles.length, is(100));
+        assertThat(doubles[99], is(49.5));
+        assertThat(db.findLongs("select id from primitive_array_test where id < 0").length, is(0));
+    }
+
+    @Test(expected = UnexpectedResultException.class)
+    public void primitiveArrayQueriesDoNotAllowNulls() {
+        db.findInts("select * from (values (1), (cast(null as int))) v");
+    }
+
+    @Test(expected = UnexpectedResultException.class)
+    public void primitiveArrayQueriesRequireSingleColumn() {
+        db.findLongs("values (1, 2)");
+    }
+
     @Test
     public void bigNumbers() {
         assertThat(db.findUnique(BigDecimal.class, "values (4242242848428484848484848)"), is(new BigDecimal("4242242848428484848484848")));
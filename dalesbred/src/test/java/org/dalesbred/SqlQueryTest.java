@@ -32,6 +32,7 @@ import java.util.Collections;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 
@@ -66,6 +67,34 @@ public class SqlQueryTest {
         assertEquals(asList(1, 2, 3), query.getArguments());
     }
 
+    @Test
+    public void statementSettingsAreUnspecifiedByDefault() {
+        SqlQuery query = SqlQuery.query("select * from foo");
+
+        assertThat(query.getFetchSize(), is(nullValue()));
+        assertThat(query.getMaxRows(), is(nullValue()));
+        assertThat(query.getQueryTimeout(), is(nullValue()));
+    }
+
+    @Test
+    public void statementSettingsAreSetOnCopy() {
+        SqlQuery original = SqlQuery.query("select * from foo", 1);
+        SqlQuery query = original.withFetchSize(100).withMaxRows(10).withQueryTimeout(5);
+
+        assertThat(query.getFetchSize(), is(100));
+        assertThat(query.getMaxRows(), is(10));
+        assertThat(query.getQueryTimeout(), is(5));
+        assertThat(query.getSql(), is(original.getSql()));
+        assertThat(query.getArguments(), is(original.getArguments()));
+        assertThat(original.getFetchSize(), is(nullValue()));
+        assertThat(query, is(CoreMatchers.not(original)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeFetchSizeIsRejected() {
+        SqlQuery.query("select * from foo").withFetchSize(-1);
+    }
+
     @Test
     public void namedQueryFromMap() {
         SqlQuery query = SqlQuery.namedQuery("select * from foo where name = :name", Collections.singletonMap("name", "bar"));
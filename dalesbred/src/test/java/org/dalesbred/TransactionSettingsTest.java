@@ -38,6 +38,6 @@ public class TransactionSettingsTest {
         settings.setPropagation(Propagation.REQUIRED);
         settings.setIsolation(Isolation.REPEATABLE_READ);
 
-        assertEquals("[propagation=REQUIRED, isolation=REPEATABLE_READ]", settings.toString());
+        assertEquals("[propagation=REQUIRED, isolation=REPEATABLE_READ, readOnly=false]", settings.toString());
     }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.dialect;
+
+import org.dalesbred.Database;
+import org.dalesbred.TestDatabaseProvider;
+import org.dalesbred.TransactionalTestsRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class PostgreSQLCopyTest {
+
+    private final Database db = TestDatabaseProvider.createPostgreSQLDatabase();
+
+    @Rule
+    public final TransactionalTestsRule rule = new TransactionalTestsRule(db);
+
+    @Test
+    public void copyRowsIn() {
+        db.update("drop table if exists copy_test");
+        db.update("create temporary table copy_test (id int, name text, data bytea, flag boolean)");
+
+        long count = db.copyIn("copy_test", asList("id", "name", "data", "flag"), IntStream.range(0, 1000).mapToObj(i ->
+                asList(i, i % 10 == 0 ? null : "name\t" + i, new byte[] { (byte) i }, i % 2 == 0)));
+
+        assertThat(count, is(1000L));
+        assertThat(db.findUniqueInt("select count(*) from copy_test where name is null"), is(100));
+        assertThat(db.findUnique(String.class, "select name from copy_test where id = 42"), is("name\t42"));
+        assertThat(db.findUnique(byte[].class, "select data from copy_test where id = 42"), is(new byte[] { 42 }));
+        assertThat(db.findUnique(Boolean.class, "select flag from copy_test where id = 43"), is(false));
+    }
+
+    @Test
+    public void copyRowsOut() {
+        db.update("drop table if exists copy_test");
+        db.update("create temporary table copy_test (id int, name text)");
+        db.update("insert into copy_test (id, name) values (1, 'foo'), (2, null), (3, 'tab\tbed')");
+
+        List<List<String>> rows = new ArrayList<>();
+        long count = db.copyOut("COPY (select id, name from copy_test order by id) TO STDOUT", rows::add);
+
+        assertThat(count, is(3L));
+        assertThat(rows, is(asList(asList("1", "foo"), asList("2", null), asList("3", "tab\tbed"))));
+    }
+}
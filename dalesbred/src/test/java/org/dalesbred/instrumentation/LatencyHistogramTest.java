@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.instrumentation;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    public void emptyHistogram() {
+        assertThat(histogram.getCount(), is(0L));
+        assertThat(histogram.getMax(), is(0L));
+        assertThat(histogram.getValueAtPercentile(99), is(0L));
+    }
+
+    @Test
+    public void smallValuesAreRecordedExactly() {
+        for (int i = 1; i <= 10; i++)
+            histogram.record(i);
+
+        assertThat(histogram.getCount(), is(10L));
+        assertThat(histogram.getValueAtPercentile(50), is(5L));
+        assertThat(histogram.getValueAtPercentile(100), is(10L));
+        assertThat(histogram.getMean(), is(5.5));
+    }
+
+    @Test
+    public void percentilesOfLargeValuesAreWithinRelativeError() {
+        for (long i = 1; i <= 100_000; i++)
+            histogram.record(i * 1000);
+
+        assertWithinRelativeError(histogram.getValueAtPercentile(50), 50_000_000);
+        assertWithinRelativeError(histogram.getValueAtPercentile(99), 99_000_000);
+        assertThat(histogram.getValueAtPercentile(100), is(100_000_000L));
+        assertThat(histogram.getMax(), is(100_000_000L));
+    }
+
+    @Test
+    public void bucketsCoverWholeRangeOfLongs() {
+        long previousBound = -1;
+        for (long value : new long[] { 0, 31, 32, 33, 63, 64, 1000, 1L << 40, Long.MAX_VALUE }) {
+            int index = LatencyHistogram.bucketIndex(value);
+            long upperBound = LatencyHistogram.bucketUpperBound(index);
+
+            assertTrue(value + " <= " + upperBound, value <= upperBound);
+            assertTrue(upperBound >= previousBound);
+            previousBound = upperBound;
+        }
+
+        histogram.record(Long.MAX_VALUE);
+        assertThat(histogram.getValueAtPercentile(50), is(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void negativeValuesAreRecordedAsZero() {
+        histogram.record(-5);
+
+        assertThat(histogram.getCount(), is(1L));
+        assertThat(histogram.getValueAtPercentile(100), is(0L));
+    }
+
+    @Test
+    public void reset() {
+        histogram.record(100);
+        histogram.reset();
+
+        assertThat(histogram.getCount(), is(0L));
+        assertThat(histogram.getMax(), is(0L));
+        assertThat(histogram.getValueAtPercentile(50), is(0L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidPercentile() {
+        histogram.getValueAtPercentile(101);
+    }
+
+    private static void assertWithinRelativeError(long value, long expected) {
+        double error = Math.abs(value - expected) / (double) expected;
+        assertTrue("expected " + value + " to be close to " + expected, error < 0.04);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.instrumentation;
+
+import org.dalesbred.Database;
+import org.dalesbred.DatabaseException;
+import org.dalesbred.TestDatabaseProvider;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class QueryMetricsTest {
+
+    private final Database db = TestDatabaseProvider.createInMemoryHSQLDatabase();
+
+    private final QueryMetrics metrics = new QueryMetrics();
+
+    @Test
+    public void normalizingSql() {
+        assertThat(QueryMetrics.normalizeSql("select *\n  from foo\twhere id = 42 "), is("select * from foo where id = ?"));
+        assertThat(QueryMetrics.normalizeSql("select * from foo where name = 'it''s' and x = 1.5"), is("select * from foo where name = ? and x = ?"));
+        assertThat(QueryMetrics.normalizeSql("select * from foo where id in (?, ?,?)"), is("select * from foo where id in (?)"));
+        assertThat(QueryMetrics.normalizeSql("select * from foo where id in (1, 2, 3)"), is("select * from foo where id in (?)"));
+        assertThat(QueryMetrics.normalizeSql("select col1, \"x 2\" from t2"), is("select col1, \"x 2\" from t2"));
+    }
+
+    @Test
+    public void statisticsAreCollectedByNormalizedSql() {
+        db.setQueryListener(metrics);
+
+        db.update("drop table if exists metrics_test");
+        db.update("create table metrics_test (id int primary key, name varchar(20))");
+        db.updateBatch("insert into metrics_test (id, name) values (?, ?)", asList(asList(1, "foo"), asList(2, "bar"), asList(3, "baz")));
+
+        assertThat(db.findAll(String.class, "select name from metrics_test where id in (1, 2)").size(), is(2));
+        assertThat(db.findAll(String.class, "select name from metrics_test where id in (1, 2, 3)").size(), is(3));
+
+        QueryStatistics selects = metrics.getStatistics("select name from metrics_test where id in (?)").orElseThrow(AssertionError::new);
+        assertThat(selects.getExecutionCount(), is(2L));
+        assertThat(selects.getRowCount(), is(5L));
+        assertThat(selects.getFailureCount(), is(0L));
+        assertTrue(selects.getTotalTimes().getValueAtPercentile(99) > 0);
+
+        QueryStatistics inserts = metrics.getStatistics("insert into metrics_test (id, name) values (?, ?)").orElseThrow(AssertionError::new);
+        assertThat(inserts.getExecutionCount(), is(1L));
+        assertThat(inserts.getRowCount(), is(3L));
+
+        assertThat(metrics.getTransactionTimes().getCount(), is(5L));
+        assertThat(metrics.getCommitTimes().getCount(), is(5L));
+    }
+
+    @Test
+    public void failedExecutionsAreCounted() {
+        db.setQueryListener(metrics);
+
+        try {
+            db.findUniqueInt("select count(*) from nonexistent_table");
+            fail("Expected DatabaseException");
+        } catch (DatabaseException ignored) {
+        }
+
+        QueryStatistics statistics = metrics.getStatistics("select count(*) from nonexistent_table").orElseThrow(AssertionError::new);
+        assertThat(statistics.getExecutionCount(), is(1L));
+        assertThat(statistics.getFailureCount(), is(1L));
+        assertThat(metrics.getRollbackCount(), is(1L));
+    }
+
+    @Test
+    public void listenerReceivesPhasesOfExecution() {
+        List<QueryExecution> executions = new ArrayList<>();
+        db.setQueryListener(executions::add);
+
+        db.findAll(Integer.class, "values (1), (2)");
+
+        assertThat(executions.size(), is(1));
+        QueryExecution execution = executions.get(0);
+        assertThat(execution.getQuery().getSql(), is("values (1), (2)"));
+        assertThat(execution.getRowCount(), is(2L));
+        assertThat(execution.isFailed(), is(false));
+        assertThat(execution.getTotalNanos(), is(execution.getPrepareNanos() + execution.getBindNanos() + execution.getExecuteNanos() + execution.getProcessNanos()));
+    }
+
+    @Test
+    public void exceptionsThrownByListenerDoNotAffectTransaction() {
+        db.setQueryListener(new QueryListener() {
+            @Override
+            public void queryExecuted(@NotNull QueryExecution execution) {
+                throw new IllegalStateException("query listener failure");
+            }
+
+            @Override
+            public void transactionCompleted(long totalNanos, long completionNanos, boolean committed) {
+                throw new IllegalStateException("transaction listener failure");
+            }
+        });
+
+        db.update("drop table if exists listener_failure_test");
+        db.update("create table listener_failure_test (id int)");
+
+        int result = db.withTransaction(tx -> {
+            db.update("insert into listener_failure_test (id) values (1)");
+            return db.findUniqueInt("select count(*) from listener_failure_test");
+        });
+
+        assertThat(result, is(1));
+        assertThat(db.findUniqueInt("select count(*) from listener_failure_test"), is(1));
+    }
+
+    @Test
+    public void statementsExceedingLimitAreCountedTogether() {
+        QueryMetrics limitedMetrics = new QueryMetrics(1);
+        db.setQueryListener(limitedMetrics);
+
+        db.findUniqueInt("values (1)");
+        db.findUniqueInt("select 1 from (values (0))");
+        db.findUniqueInt("select 2 + 1 from (values (0))");
+
+        assertThat(limitedMetrics.getStatistics().keySet(), is(new TreeSet<>(asList("values (?)", QueryMetrics.OTHER_STATEMENTS))));
+        assertThat(limitedMetrics.getStatistics().get(QueryMetrics.OTHER_STATEMENTS).getExecutionCount(), is(2L));
+    }
+
+    @Test
+    public void reset() {
+        db.setQueryListener(metrics);
+        db.findUniqueInt("values (1)");
+
+        metrics.reset();
+
+        assertThat(metrics.getStatistics().isEmpty(), is(true));
+        assertThat(metrics.getTransactionTimes().getCount(), is(0L));
+    }
+}
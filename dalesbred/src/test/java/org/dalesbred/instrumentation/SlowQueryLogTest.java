@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.instrumentation;
+
+import org.dalesbred.Database;
+import org.dalesbred.TestDatabaseProvider;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class SlowQueryLogTest {
+
+    private final Database db = TestDatabaseProvider.createInMemoryHSQLDatabase();
+
+    @Test
+    public void queriesExceedingThresholdAreRecorded() {
+        SlowQueryLog slowQueries = new SlowQueryLog(Duration.ZERO, 10);
+        db.setQueryListener(slowQueries);
+
+        db.findUniqueInt("values (cast(? as int))", 42);
+
+        List<SlowQuery> queries = slowQueries.getSlowQueries();
+        assertThat(queries.size(), is(1));
+
+        QueryExecution execution = queries.get(0).getExecution();
+        assertThat(execution.getQuery().getSql(), is("values (cast(? as int))"));
+        assertThat(execution.getQuery().getArguments(), is(singletonList(42)));
+        assertTrue(execution.getTransactionElapsedNanos() >= execution.getTotalNanos());
+    }
+
+    @Test
+    public void queriesBelowThresholdAreIgnored() {
+        SlowQueryLog slowQueries = new SlowQueryLog(Duration.ofHours(1), 10);
+        db.setQueryListener(slowQueries);
+
+        db.findUniqueInt("values (1)");
+
+        assertThat(slowQueries.getSlowQueries().isEmpty(), is(true));
+        assertThat(slowQueries.getSlowQueryCount(), is(0L));
+    }
+
+    @Test
+    public void onlyMostRecentQueriesAreRetained() {
+        SlowQueryLog slowQueries = new SlowQueryLog(Duration.ZERO, 2);
+        db.setQueryListener(slowQueries);
+
+        db.findUniqueInt("values (1)");
+        db.findUniqueInt("values (2)");
+        db.findUniqueInt("values (3)");
+
+        assertThat(slowQueries.getSlowQueryCount(), is(3L));
+        assertThat(slowQueries.getSlowQueries().stream().map(q -> q.getExecution().getQuery().getSql()).collect(toList()),
+                is(asList("values (2)", "values (3)")));
+
+        slowQueries.clear();
+        assertThat(slowQueries.getSlowQueries().isEmpty(), is(true));
+    }
+
+    @Test
+    public void argumentsCanBeRedacted() {
+        SlowQueryLog slowQueries = new SlowQueryLog(Duration.ZERO, 10);
+        slowQueries.setRedactArguments(true);
+        db.setQueryListener(slowQueries);
+
+        db.findUnique(String.class, "values (cast(? as varchar(20)))", "secret");
+
+        assertThat(slowQueries.getSlowQueries().get(0).getExecution().getQuery().getArguments(),
+                is(singletonList(SlowQueryLog.REDACTED)));
+    }
+
+    @Test
+    public void slowQueriesCanBeCombinedWithMetrics() {
+        SlowQueryLog slowQueries = new SlowQueryLog(Duration.ZERO, 10);
+        QueryMetrics metrics = new QueryMetrics();
+        db.setQueryListener(QueryListener.composite(slowQueries, metrics));
+
+        db.findUniqueInt("values (1)");
+
+        assertThat(slowQueries.getSlowQueryCount(), is(1L));
+        assertThat(metrics.getStatistics().size(), is(1));
+        assertThat(metrics.getTransactionTimes().getCount(), is(1L));
+    }
+}
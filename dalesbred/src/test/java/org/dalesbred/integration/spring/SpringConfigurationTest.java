@@ -25,6 +25,7 @@ package org.dalesbred.integration.spring;
 import org.dalesbred.Database;
 import org.dalesbred.TestDatabaseProvider;
 import org.dalesbred.transaction.Propagation;
+import org.dalesbred.transaction.TransactionSettings;
 import org.junit.Test;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
@@ -72,6 +73,18 @@ public class SpringConfigurationTest {
         assertThat(db.findUniqueInt("select count(*) from spring_tx_test"), is(0));
     }
 
+    @Test
+    public void readOnlyTransactionsAreMappedToSpring() {
+        AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(SimpleConfiguration.class);
+        Database db = ctx.getBean(Database.class);
+
+        TransactionSettings settings = new TransactionSettings();
+        settings.setReadOnly(true);
+
+        assertThat(db.withTransaction(settings, tx -> tx.getConnection().isReadOnly()), is(true));
+        assertThat(db.withTransaction(tx -> tx.getConnection().isReadOnly()), is(false));
+    }
+
     @Configuration
     public static class SimpleConfiguration extends DalesbredConfigurationSupport {
 
@@ -80,6 +80,33 @@ public class ConversionMapTest {
         assertSame(conversion, registry.findConversion(String.class, Long.class).orElse(null));
     }
 
+    @Test
+    public void lookupsAreCached() {
+        TypeConversion conversion = dummyConversion();
+        registry.register(Number.class, String.class, conversion);
+
+        assertSame(conversion, registry.findConversion(Integer.class, String.class).orElse(null));
+        assertSame(conversion, registry.findConversion(Integer.class, String.class).orElse(null));
+        assertThat(registry.findConversion(Integer.class, Long.class), is(Optional.empty()));
+        assertThat(registry.findConversion(Integer.class, Long.class), is(Optional.empty()));
+
+        assertThat(registry.getLookupCache().getMissCount(), is(2L));
+        assertThat(registry.getLookupCache().getHitCount(), is(2L));
+    }
+
+    @Test
+    public void registeringConversionInvalidatesCachedLookups() {
+        assertThat(registry.findConversion(Integer.class, String.class), is(Optional.empty()));
+
+        TypeConversion conversion1 = dummyConversion();
+        registry.register(Number.class, String.class, conversion1);
+        assertSame(conversion1, registry.findConversion(Integer.class, String.class).orElse(null));
+
+        TypeConversion conversion2 = dummyConversion();
+        registry.register(Integer.class, String.class, conversion2);
+        assertSame(conversion2, registry.findConversion(Integer.class, String.class).orElse(null));
+    }
+
     @Test
     public void laterAdditionsOverrideEarlierOnes() {
         TypeConversion conversion1 = dummyConversion();
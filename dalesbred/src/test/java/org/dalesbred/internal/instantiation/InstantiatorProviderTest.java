@@ -32,9 +32,19 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.junit.Test;
 
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 public class InstantiatorProviderTest {
 
@@ -60,6 +70,50 @@ public class InstantiatorProviderTest {
         assertAssignable(Long.class, long.class);
     }
 
+    @Test
+    public void argumentsAreBoundWithTypeSpecificSetters() throws SQLException {
+        PreparedStatement ps = mock(PreparedStatement.class);
+
+        instantiatorRegistry.bindArgument(ps, 1, "foo");
+        instantiatorRegistry.bindArgument(ps, 2, 42);
+        instantiatorRegistry.bindArgument(ps, 3, 42L);
+        instantiatorRegistry.bindArgument(ps, 4, BigDecimal.TEN);
+        instantiatorRegistry.bindArgument(ps, 5, true);
+
+        verify(ps).setString(1, "foo");
+        verify(ps).setInt(2, 42);
+        verify(ps).setLong(3, 42L);
+        verify(ps).setBigDecimal(4, BigDecimal.TEN);
+        verify(ps).setBoolean(5, true);
+    }
+
+    @Test
+    public void enumArgumentsAreBoundByName() throws SQLException {
+        PreparedStatement ps = mock(PreparedStatement.class);
+
+        instantiatorRegistry.bindArgument(ps, 1, TestEnum.BAR);
+
+        verify(ps).setString(1, "BAR");
+    }
+
+    @Test
+    public void argumentsAreConvertedBeforeBinding() throws SQLException {
+        PreparedStatement ps = mock(PreparedStatement.class);
+
+        instantiatorRegistry.bindArgument(ps, 1, LocalDate.of(2016, 5, 10));
+
+        verify(ps).setObject(1, java.sql.Date.valueOf("2016-05-10"));
+    }
+
+    @Test
+    public void nullArgumentsAreBoundAsObjects() throws SQLException {
+        PreparedStatement ps = mock(PreparedStatement.class);
+
+        instantiatorRegistry.bindArgument(ps, 1, null);
+
+        verify(ps).setObject(1, null);
+    }
+
     @Test
     public void findDefaultConstructor() {
         TestClass result = instantiate(TestClass.class, NamedTypeList.builder(0).build());
@@ -157,6 +211,82 @@ public class InstantiatorProviderTest {
         assertThat(result.publicField, is("foo"));
     }
 
+    @Test
+    public void resolvedInstantiatorsAreCached() {
+        Instantiator<TestClass> first = instantiatorRegistry.findInstantiator(TestClass.class, createNamedTypeList(String.class));
+        Instantiator<TestClass> second = instantiatorRegistry.findInstantiator(TestClass.class, createNamedTypeList(String.class));
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(instantiatorRegistry.getInstantiatorCache().getMissCount(), is(1L));
+        assertThat(instantiatorRegistry.getInstantiatorCache().getHitCount(), is(1L));
+    }
+
+    @Test
+    public void instantiatorsAreCachedSeparatelyForDifferentTypes() {
+        Instantiator<TestClass> stringInstantiator = instantiatorRegistry.findInstantiator(TestClass.class, createNamedTypeList(String.class));
+        Instantiator<TestClass> intInstantiator = instantiatorRegistry.findInstantiator(TestClass.class, createNamedTypeList(int.class));
+
+        assertThat(intInstantiator, is(not(sameInstance(stringInstantiator))));
+        assertThat(instantiatorRegistry.getInstantiatorCache().size(), is(2));
+    }
+
+    @Test
+    public void registeringConversionsInvalidatesCachedInstantiators() {
+        assertThat(instantiate(TestClass.class, String.class, "foo").calledConstructor, is(2));
+
+        instantiatorRegistry.getTypeConversionRegistry().registerConversionFromDatabase(String.class, TestClass.class, s -> new TestClass());
+
+        assertThat(instantiate(TestClass.class, String.class, "foo").calledConstructor, is(1));
+    }
+
+    @Test
+    public void methodHandlesAreUsedForAccessibleMembers() {
+        NamedTypeList types = NamedTypeList.builder(2).add("arg", String.class).add("propertyWithAccessors", String.class).build();
+
+        Instantiator<TestClass> instantiator = instantiatorRegistry.findInstantiator(TestClass.class, types);
+
+        assertThat(instantiator, is(instanceOf(MethodHandleInstantiator.class)));
+    }
+
+    @Test
+    public void primitiveConstructorParametersAndFluentSettersWithMethodHandles() {
+        NamedTypeList types = NamedTypeList.builder(3).add("x", Integer.class).add("y", Long.class).add("name", String.class).build();
+
+        TestClassWithFluentSetter result = instantiate(TestClassWithFluentSetter.class, types, 1, 2L, "foo");
+
+        assertNotNull(result);
+        assertThat(result.x, is(1));
+        assertThat(result.y, is(2L));
+        assertThat(result.name, is("foo"));
+    }
+
+    @Test
+    public void explicitPrivateConstructorCanBeInvokedThroughMethodHandles() {
+        NamedTypeList types = NamedTypeList.builder(1).add("publicField", String.class).build();
+
+        Instantiator<TestClassWithExplicitPrivateConstructor> instantiator = instantiatorRegistry.findInstantiator(TestClassWithExplicitPrivateConstructor.class, types);
+
+        assertThat(instantiator, is(instanceOf(MethodHandleInstantiator.class)));
+    }
+
+    public static class TestClassWithFluentSetter {
+        private final int x;
+        private final long y;
+        private String name;
+
+        @Reflective
+        public TestClassWithFluentSetter(int x, long y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        @Reflective
+        public TestClassWithFluentSetter setName(String name) {
+            this.name = name;
+            return this;
+        }
+    }
+
     public static class TestClass {
         private final int calledConstructor;
 
@@ -281,4 +411,6 @@ public class InstantiatorProviderTest {
         @Reflective
         InaccessibleConstructor(int x) { }
     }
+
+    private enum TestEnum { FOO, BAR }
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.internal.jdbc;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class MultiRowInsertTest {
+
+    @Test
+    public void simpleInsertsAreRewritten() {
+        MultiRowInsert insert = MultiRowInsert.parse("insert into foo (a, b) values (?, ?)").orElseThrow(AssertionError::new);
+
+        assertThat(insert.getParametersPerRow(), is(2));
+        assertThat(insert.sql(1), is("insert into foo (a, b) values (?, ?)"));
+        assertThat(insert.sql(3), is("insert into foo (a, b) values (?, ?), (?, ?), (?, ?)"));
+    }
+
+    @Test
+    public void expressionsInValuesAreRepeated() {
+        MultiRowInsert insert = MultiRowInsert.parse("INSERT INTO foo (a, b, c) VALUES (?, lower(?), 'x?)')").orElseThrow(AssertionError::new);
+
+        assertThat(insert.getParametersPerRow(), is(2));
+        assertThat(insert.sql(2), is("INSERT INTO foo (a, b, c) VALUES (?, lower(?), 'x?)'), (?, lower(?), 'x?)')"));
+    }
+
+    @Test
+    public void otherStatementsAreNotRewritten() {
+        assertThat(MultiRowInsert.parse("update foo set a = ?").isPresent(), is(false));
+        assertThat(MultiRowInsert.parse("insert into foo (a) select a from bar where b = ?").isPresent(), is(false));
+        assertThat(MultiRowInsert.parse("insert into foo (a) values (?) returning id").isPresent(), is(false));
+        assertThat(MultiRowInsert.parse("insert into foo (a) values (?) on conflict (a) do nothing").isPresent(), is(false));
+        assertThat(MultiRowInsert.parse("insert into foo (a) values (?), (?)").isPresent(), is(false));
+        assertThat(MultiRowInsert.parse("insert into foo (a) values (1)").isPresent(), is(false));
+    }
+
+    @Test
+    public void rowsAreGroupedByWidth() {
+        List<List<?>> rows = asList(asList(1, "a"), asList(2, "b"), asList(3, "c"), asList(4, "d"), asList(5, "e"));
+        MultiRowInsert insert = MultiRowInsert.parse("insert into foo (a, b) values (?, ?)").orElseThrow(AssertionError::new);
+
+        MultiRowInsert.RowGroups groups = insert.groups(rows.iterator(), 2);
+        List<List<?>> result = new ArrayList<>();
+        groups.forEachRemaining(result::add);
+
+        assertThat(result, is(asList(asList(1, "a", 2, "b"), asList(3, "c", 4, "d"))));
+        assertThat(groups.getRemainder(), is(asList(asList(5, "e"))));
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.internal.jdbc;
+
+import org.junit.Test;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class PostgreSQLCopyFormatTest {
+
+    @Test
+    public void encodeRows() {
+        StringBuilder sb = new StringBuilder();
+        PostgreSQLCopyFormat.appendRow(sb, asList(1, "foo", null, true));
+        PostgreSQLCopyFormat.appendRow(sb, asList(2, "tab\tnewline\nbackslash\\", new byte[] { 1, (byte) 0xAB }, false));
+
+        assertThat(sb.toString(), is("1\tfoo\t\\N\tt\n" +
+                                     "2\ttab\\tnewline\\nbackslash\\\\\t\\\\x01ab\tf\n"));
+    }
+
+    @Test
+    public void parseRows() {
+        assertThat(PostgreSQLCopyFormat.parseRow("1\tfoo\t\\N\n"), is(asList("1", "foo", null)));
+        assertThat(PostgreSQLCopyFormat.parseRow("tab\\tnewline\\nbackslash\\\\\t\\101\\x42"), is(asList("tab\tnewline\nbackslash\\", "AB")));
+        assertThat(PostgreSQLCopyFormat.parseRow(""), is(asList("")));
+    }
+
+    @Test
+    public void encodedRowsAreParsedBack() {
+        List<String> values = asList("plain", "with\ttabs", "\\N", "", null, "multi\r\nline");
+
+        StringBuilder sb = new StringBuilder();
+        PostgreSQLCopyFormat.appendRow(sb, values);
+
+        assertThat(PostgreSQLCopyFormat.parseRow(sb.toString()), is(values));
+    }
+
+    @Test
+    public void encodeDatesAndTimes() {
+        Timestamp timestamp = Timestamp.valueOf(LocalDateTime.of(2016, 2, 3, 4, 5, 6, 789_000_000));
+
+        StringBuilder sb = new StringBuilder();
+        PostgreSQLCopyFormat.appendRow(sb, asList(Date.valueOf(LocalDate.of(2016, 2, 3)), Time.valueOf(LocalTime.of(4, 5, 6)), timestamp, new java.util.Date(timestamp.getTime())));
+
+        String offsetDateTime = OffsetDateTime.ofInstant(timestamp.toInstant(), ZoneId.systemDefault()).toString();
+        assertThat(sb.toString(), is("2016-02-03\t04:05:06\t" + offsetDateTime + "\t" + offsetDateTime + "\n"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void arraysAreRejected() {
+        PostgreSQLCopyFormat.appendRow(new StringBuilder(), asList(1, new int[] { 1, 2 }));
+    }
+}
@@ -37,7 +37,6 @@ import java.util.List;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
-import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -135,9 +134,7 @@ public class InstantiatorRowMapperTest {
 
         when(resultSet.next()).thenReturn(true).thenReturn(false);
 
-        OngoingStubbing<Object> getObjectStubbing = when(resultSet.getObject(anyInt()));
-        for (Object value : values)
-            getObjectStubbing = getObjectStubbing.thenReturn(value);
+        stubColumns(resultSet, new Object[][] { values });
 
         return resultSet;
     }
@@ -152,14 +149,29 @@ public class InstantiatorRowMapperTest {
             nextStubbing = nextStubbing.thenReturn(true);
         nextStubbing.thenReturn(false);
 
-        OngoingStubbing<Object> getObjectStubbing = when(resultSet.getObject(anyInt()));
-        for (Object[] row : rows)
-            for (Object col : row)
-                getObjectStubbing = getObjectStubbing.thenReturn(col);
+        stubColumns(resultSet, rows);
 
         return resultSet;
     }
 
+    /**
+     * Stubs the getters of each column to return the values of consecutive rows. Integer columns
+     * may be read either as objects or as ints.
+     */
+    private static void stubColumns(@NotNull ResultSet resultSet, @NotNull Object[][] rows) throws SQLException {
+        for (int column = 0; column < rows[0].length; column++) {
+            OngoingStubbing<Object> getObjectStubbing = when(resultSet.getObject(column + 1));
+            for (Object[] row : rows)
+                getObjectStubbing = getObjectStubbing.thenReturn(row[column]);
+
+            if (rows[0][column] instanceof Integer) {
+                OngoingStubbing<Integer> getIntStubbing = when(resultSet.getInt(column + 1));
+                for (Object[] row : rows)
+                    getIntStubbing = getIntStubbing.thenReturn((Integer) row[column]);
+            }
+        }
+    }
+
     private static ResultSetMetaData metadataFromRow(@NotNull Object[] row) throws SQLException {
         ResultSetMetaData metaData = mock(ResultSetMetaData.class);
         when(metaData.getColumnCount()).thenReturn(row.length);
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.internal.utils;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class BoundedCacheTest {
+
+    @Test
+    public void valuesAreComputedOnlyOnce() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10);
+
+        assertThat(cache.computeIfAbsent("foo", String::length), is(3));
+        assertThat(cache.computeIfAbsent("foo", key -> 42), is(3));
+
+        assertThat(cache.getMissCount(), is(1L));
+        assertThat(cache.getHitCount(), is(1L));
+    }
+
+    @Test
+    public void cacheIsBoundedBySize() {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(3);
+
+        for (int i = 0; i < 10; i++)
+            cache.computeIfAbsent(i, key -> key * 2);
+
+        assertThat(cache.size(), is(3));
+        assertThat(cache.getEvictionCount(), is(7L));
+    }
+
+    @Test
+    public void newestValueIsNeverEvicted() {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(1);
+
+        cache.computeIfAbsent(1, key -> key);
+        cache.computeIfAbsent(2, key -> key);
+
+        assertThat(cache.computeIfAbsent(2, key -> 42), is(2));
+        assertThat(cache.getHitCount(), is(1L));
+    }
+
+    @Test
+    public void clearingRemovesEntries() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10);
+        cache.computeIfAbsent("foo", String::length);
+
+        cache.clear();
+
+        assertThat(cache.size(), is(0));
+        assertThat(cache.computeIfAbsent("foo", key -> 42), is(42));
+    }
+
+    @Test
+    public void valuesComputedBeforeClearAreNotRetained() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10);
+
+        assertThat(cache.computeIfAbsent("foo", key -> {
+            cache.clear();
+            return 1;
+        }), is(1));
+
+        assertThat(cache.size(), is(0));
+        assertThat(cache.computeIfAbsent("foo", key -> 2), is(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void maxSizeMustBePositive() {
+        new BoundedCache<String, String>(0);
+    }
+}
@@ -25,12 +25,14 @@ package org.dalesbred.query;
 import org.dalesbred.annotation.SQL;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 public class NamedParameterSqlParserTest {
@@ -93,6 +95,72 @@ public class NamedParameterSqlParserTest {
         assertNamedParameters("select \" :bar  \"", "select \" :bar  \"", emptyList());
     }
 
+    @Test
+    public void dollarQuotedStrings() {
+        assertNamedParameters("select $$ :foo ' $$, :bar", "select $$ :foo ' $$, ?", singletonList("bar"));
+    }
+
+    @Test
+    public void taggedDollarQuotedStrings() {
+        assertNamedParameters("select $tag$ :foo $$ :bar $tag$, :baz", "select $tag$ :foo $$ :bar $tag$, ?",
+                singletonList("baz"));
+    }
+
+    @Test
+    public void dollarsThatDoNotStartQuotedStrings() {
+        assertNamedParameters("select a$b, $1, :foo", "select a$b, $1, ?", singletonList("foo"));
+    }
+
+    @Test
+    public void longQueryWithManyParameters() {
+        StringBuilder sql = new StringBuilder("select * from foo where 1=1");
+        StringBuilder expected = new StringBuilder(sql);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            sql.append(" /* :x */ and col").append(i).append("::text = :param").append(i);
+            expected.append(" /* :x */ and col").append(i).append("::text = ?");
+            names.add("param" + i);
+        }
+
+        assertNamedParameters(sql.toString(), expected.toString(), names);
+    }
+
+    @Test(expected = SqlSyntaxException.class)
+    public void unterminatedBlockComment() {
+        NamedParameterSqlParser.parseSqlStatement("select /* :foo");
+    }
+
+    @Test(expected = SqlSyntaxException.class)
+    public void unterminatedDollarQuote() {
+        NamedParameterSqlParser.parseSqlStatement("select $foo$ :bar $$");
+    }
+
+    @Test(expected = SqlSyntaxException.class)
+    public void traditionalPlaceholders() {
+        NamedParameterSqlParser.parseSqlStatement("select * from foo where id = ?");
+    }
+
+    @Test(expected = SqlSyntaxException.class)
+    public void parameterWithoutName() {
+        NamedParameterSqlParser.parseSqlStatement("select * from foo where id = :");
+    }
+
+    @Test
+    public void parsedNamedQueriesAreCached() {
+        String sql = "select * from foo where id = :id";
+
+        NamedParameterSql first = SqlQuery.parseNamedQuery(sql);
+        NamedParameterSql second = SqlQuery.parseNamedQuery(new String(sql));
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(first.getParameterNames(), is(singletonList("id")));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void parameterNamesOfParsedQueryCanNotBeModified() {
+        SqlQuery.parseNamedQuery("select * from foo where id = :id").getParameterNames().add("bar");
+    }
+
     private static void assertNamedParameters(@SQL String sql, @SQL String expected, List<String> parameters) {
         NamedParameterSql result = NamedParameterSqlParser.parseSqlStatement(sql);
 
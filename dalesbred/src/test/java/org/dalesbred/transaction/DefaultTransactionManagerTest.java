@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.transaction;
+
+import org.dalesbred.Database;
+import org.dalesbred.DatabaseException;
+import org.dalesbred.TestDatabaseProvider;
+import org.dalesbred.connection.ConnectionProvider;
+import org.dalesbred.dialect.DefaultDialect;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class DefaultTransactionManagerTest {
+
+    private final DefaultTransactionManager transactionManager =
+            new DefaultTransactionManager(TestDatabaseProvider.createInMemoryHSQLConnectionProvider());
+
+    private final Database db = new Database(transactionManager);
+
+    @Test
+    public void transactionsAreActiveOnlyWithinCallback() {
+        assertThat(db.hasActiveTransaction(), is(false));
+
+        db.withVoidTransaction(tx -> {
+            assertThat(db.hasActiveTransaction(), is(true));
+            assertThat(db.findUniqueInt("values (42)"), is(42));
+        });
+
+        assertThat(db.hasActiveTransaction(), is(false));
+    }
+
+    @Test
+    public void transactionsAreJoinedAndSuspended() {
+        db.withVoidTransaction(outer -> {
+            db.withVoidTransaction(Propagation.REQUIRED, inner ->
+                    assertThat(inner.getConnection(), is(sameInstance(outer.getConnection()))));
+
+            db.withVoidTransaction(Propagation.REQUIRES_NEW, inner ->
+                    assertThat(inner.getConnection(), is(not(sameInstance(outer.getConnection())))));
+
+            db.withVoidTransaction(Propagation.MANDATORY, inner ->
+                    assertThat(inner.getConnection(), is(sameInstance(outer.getConnection()))));
+        });
+    }
+
+    @Test
+    public void readOnlyTransactionsAreReadOnlyInDatabase() {
+        TransactionSettings settings = new TransactionSettings();
+        settings.setReadOnly(true);
+
+        db.withVoidTransaction(settings, tx -> {
+            assertThat(tx.getConnection().isReadOnly(), is(true));
+            assertThat(db.findUniqueInt("values (42)"), is(42));
+
+            try {
+                db.update("create table read_only_test (id int)");
+                fail("Expected DatabaseException");
+            } catch (DatabaseException ignored) {
+            }
+        });
+
+        db.withVoidTransaction(tx -> assertThat(tx.getConnection().isReadOnly(), is(false)));
+    }
+
+    @Test
+    public void transactionsAreNotVisibleToOtherThreads() throws Exception {
+        db.withVoidTransaction(tx -> {
+            boolean otherThreadHasTransaction = CompletableFuture.supplyAsync(db::hasActiveTransaction).join();
+            assertThat(otherThreadHasTransaction, is(false));
+        });
+    }
+
+    @Test
+    public void connectionIsReleasedWhenEnteringReadOnlyModeFails() {
+        CountingConnectionProvider connectionProvider = new CountingConnectionProvider();
+        Database db = new Database(new DefaultTransactionManager(connectionProvider), new FailingReadOnlyDialect(true));
+        TransactionSettings settings = new TransactionSettings();
+        settings.setReadOnly(true);
+
+        try {
+            db.withVoidTransaction(settings, tx -> fail("transaction should not start"));
+            fail("Expected DatabaseException");
+        } catch (DatabaseException ignored) {
+        }
+
+        assertThat(connectionProvider.openConnections.get(), is(0));
+    }
+
+    @Test
+    public void failureToLeaveReadOnlyModeDoesNotHideOriginalException() {
+        CountingConnectionProvider connectionProvider = new CountingConnectionProvider();
+        Database db = new Database(new DefaultTransactionManager(connectionProvider), new FailingReadOnlyDialect(false));
+        TransactionSettings settings = new TransactionSettings();
+        settings.setReadOnly(true);
+
+        try {
+            db.withVoidTransaction(settings, tx -> { throw new IllegalStateException("original"); });
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is("original"));
+            assertThat(e.getSuppressed().length, is(1));
+            assertThat(e.getSuppressed()[0], is(instanceOf(SQLException.class)));
+        }
+
+        assertThat(connectionProvider.openConnections.get(), is(0));
+    }
+
+    private static final class CountingConnectionProvider implements ConnectionProvider {
+
+        private final ConnectionProvider delegate = TestDatabaseProvider.createInMemoryHSQLConnectionProvider();
+
+        final AtomicInteger openConnections = new AtomicInteger();
+
+        @NotNull
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = delegate.getConnection();
+            openConnections.incrementAndGet();
+            return connection;
+        }
+
+        @Override
+        public void releaseConnection(@NotNull Connection connection) throws SQLException {
+            openConnections.decrementAndGet();
+            delegate.releaseConnection(connection);
+        }
+    }
+
+    private static final class FailingReadOnlyDialect extends DefaultDialect {
+
+        private final boolean failingMode;
+
+        FailingReadOnlyDialect(boolean failingMode) {
+            this.failingMode = failingMode;
+        }
+
+        @Override
+        public void setReadOnly(@NotNull Connection connection, boolean readOnly) throws SQLException {
+            if (readOnly == failingMode)
+                throw new SQLException("setReadOnly(" + readOnly + ") failed");
+            super.setReadOnly(connection, readOnly);
+        }
+    }
+}
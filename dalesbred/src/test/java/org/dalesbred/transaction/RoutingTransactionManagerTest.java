@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.transaction;
+
+import org.dalesbred.Database;
+import org.dalesbred.DatabaseException;
+import org.dalesbred.connection.ConnectionProvider;
+import org.dalesbred.connection.DriverManagerConnectionProvider;
+import org.dalesbred.dialect.HsqldbDialect;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.frequency;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class RoutingTransactionManagerTest {
+
+    private final RoutingTransactionManager transactionManager = RoutingTransactionManager.forConnectionProviders(
+            createNode("primary"), asList(createNode("replica1"), createNode("replica2")));
+
+    private final Database db = new Database(transactionManager, new HsqldbDialect());
+
+    @Test
+    public void writesGoToPrimary() {
+        assertThat(db.findUnique(String.class, "select name from node"), is("primary"));
+        assertThat(db.withTransaction(tx -> db.findUnique(String.class, "select name from node")), is("primary"));
+    }
+
+    @Test
+    public void readOnlyTransactionsAreDistributedToReplicas() {
+        List<String> nodes = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+            nodes.add(db.withTransaction(readOnly(Propagation.REQUIRED), tx -> db.findUnique(String.class, "select name from node")));
+
+        assertThat(nodes, is(asList("replica1", "replica2", "replica1", "replica2")));
+    }
+
+    @Test
+    public void leastLatencySelectionPrefersFasterReplica() {
+        RoutingTransactionManager transactionManager = RoutingTransactionManager.forConnectionProviders(
+                createNode("primary"), asList(slow(createNode("replica1")), createNode("replica2")));
+        transactionManager.setReplicaSelection(ReplicaSelection.LEAST_LATENCY);
+        Database db = new Database(transactionManager, new HsqldbDialect());
+
+        // Both replicas are tried before the measurements determine the selection
+        assertThat(db.withTransaction(readOnly(Propagation.REQUIRED), tx -> db.findUnique(String.class, "select name from node")), is("replica1"));
+        assertThat(db.withTransaction(readOnly(Propagation.REQUIRED), tx -> db.findUnique(String.class, "select name from node")), is("replica2"));
+
+        // Time spent in the callback is not held against the replica
+        db.withTransaction(readOnly(Propagation.REQUIRED), tx -> sleep(100));
+        assertThat(db.withTransaction(readOnly(Propagation.REQUIRED), tx -> db.findUnique(String.class, "select name from node")), is("replica2"));
+    }
+
+    @Test
+    public void leastLatencySelectionStillVisitsSlowerReplicas() {
+        RoutingTransactionManager transactionManager = RoutingTransactionManager.forConnectionProviders(
+                createNode("primary"), asList(slow(createNode("replica1")), createNode("replica2")));
+        transactionManager.setReplicaSelection(ReplicaSelection.LEAST_LATENCY);
+        Database db = new Database(transactionManager, new HsqldbDialect());
+
+        List<String> nodes = new ArrayList<>();
+        for (int i = 0; i < 40; i++)
+            nodes.add(db.withTransaction(readOnly(Propagation.REQUIRED), tx -> db.findUnique(String.class, "select name from node")));
+
+        assertThat(frequency(nodes, "replica1"), is(2));
+        assertThat(frequency(nodes, "replica2"), is(38));
+    }
+
+    @Test
+    public void leastLatencySelectionAvoidsFailingReplica() {
+        ConnectionProvider failing = new ConnectionProvider() {
+            @NotNull
+            @Override
+            public Connection getConnection() throws SQLException {
+                throw new SQLException("replica is down");
+            }
+
+            @Override
+            public void releaseConnection(@NotNull Connection connection) {
+            }
+        };
+        RoutingTransactionManager transactionManager = RoutingTransactionManager.forConnectionProviders(
+                createNode("primary"), asList(failing, createNode("replica2")));
+        transactionManager.setReplicaSelection(ReplicaSelection.LEAST_LATENCY);
+        Database db = new Database(transactionManager, new HsqldbDialect());
+
+        try {
+            db.withTransaction(readOnly(Propagation.REQUIRED), tx -> db.findUnique(String.class, "select name from node"));
+            fail("Expected DatabaseException");
+        } catch (DatabaseException ignored) {
+        }
+
+        for (int i = 0; i < 10; i++)
+            assertThat(db.withTransaction(readOnly(Propagation.REQUIRED), tx -> db.findUnique(String.class, "select name from node")), is("replica2"));
+    }
+
+    @Test
+    public void nestedTransactionsUseDatabaseOfOuterTransaction() {
+        String node = db.withTransaction(readOnly(Propagation.REQUIRED), outer ->
+                db.withTransaction(tx -> db.findUnique(String.class, "select name from node")));
+
+        assertThat(node, is("replica1"));
+    }
+
+    @Test
+    public void newTransactionsAreRoutedOnTheirOwn() {
+        String node = db.withTransaction(readOnly(Propagation.REQUIRED), outer ->
+                db.withTransaction(Propagation.REQUIRES_NEW, tx -> db.findUnique(String.class, "select name from node")));
+
+        assertThat(node, is("primary"));
+        assertThat(db.hasActiveTransaction(), is(false));
+    }
+
+    @Test
+    public void readsFollowWritesWithinWindow() {
+        transactionManager.setReadYourWritesWindow(Duration.ofMinutes(1));
+
+        db.update("update node set name = name");
+
+        assertThat(db.withTransaction(readOnly(Propagation.REQUIRED), tx -> db.findUnique(String.class, "select name from node")), is("primary"));
+    }
+
+    @Test
+    public void readsWithinWindowDoNotExtendIt() {
+        transactionManager.setReadYourWritesWindow(Duration.ofMillis(300));
+
+        db.update("update node set name = name");
+        sleep(150);
+        assertThat(db.withTransaction(readOnly(Propagation.REQUIRED), tx -> db.findUnique(String.class, "select name from node")), is("primary"));
+
+        // The window has closed 300 ms after the write, even though the read above happened later
+        sleep(200);
+        assertThat(db.withTransaction(readOnly(Propagation.REQUIRED), tx -> db.findUnique(String.class, "select name from node")), is("replica1"));
+    }
+
+    @Test
+    public void withoutReplicasEverythingGoesToPrimary() {
+        Database primaryOnly = new Database(new RoutingTransactionManager(new DefaultTransactionManager(createNode("primary")), emptyList()), new HsqldbDialect());
+
+        assertThat(primaryOnly.withTransaction(readOnly(Propagation.REQUIRED), tx -> primaryOnly.findUnique(String.class, "select name from node")), is("primary"));
+    }
+
+    @NotNull
+    private static TransactionSettings readOnly(@NotNull Propagation propagation) {
+        TransactionSettings settings = new TransactionSettings();
+        settings.setPropagation(propagation);
+        settings.setReadOnly(true);
+        return settings;
+    }
+
+    private static String sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    /**
+     * Returns a provider that takes 20 ms to acquire each connection.
+     */
+    @NotNull
+    private static ConnectionProvider slow(@NotNull ConnectionProvider provider) {
+        return new ConnectionProvider() {
+            @NotNull
+            @Override
+            public Connection getConnection() throws SQLException {
+                sleep(20);
+                return provider.getConnection();
+            }
+
+            @Override
+            public void releaseConnection(@NotNull Connection connection) throws SQLException {
+                provider.releaseConnection(connection);
+            }
+        };
+    }
+
+    @NotNull
+    private static ConnectionProvider createNode(@NotNull String name) {
+        ConnectionProvider provider = new DriverManagerConnectionProvider("jdbc:hsqldb:mem:routing-" + name, "sa", "");
+
+        Database db = new Database(provider, new HsqldbDialect());
+        db.update("drop table if exists node");
+        db.update("create table node (name varchar(20))");
+        db.update("insert into node (name) values (?)", name);
+
+        return provider;
+    }
+}
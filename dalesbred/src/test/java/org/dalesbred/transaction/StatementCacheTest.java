@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2016 Evident Solutions Oy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.dalesbred.transaction;
+
+import org.dalesbred.Database;
+import org.dalesbred.TestDatabaseProvider;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.dalesbred.query.SqlQuery.query;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StatementCacheTest {
+
+    private final DefaultTransactionManager transactionManager = new DefaultTransactionManager(TestDatabaseProvider.createInMemoryHSQLConnectionProvider());
+
+    private final Database db = new Database(transactionManager);
+
+    @Test
+    public void statementsAreReusedWithinTransaction() {
+        transactionManager.setStatementCacheSize(10);
+
+        db.withVoidTransaction(tx -> {
+            PreparedStatement first = tx.prepareStatement("values (1)");
+            tx.releaseStatement(first);
+
+            PreparedStatement second = tx.prepareStatement("values (1)");
+            tx.releaseStatement(second);
+
+            assertThat(second, is(sameInstance(first)));
+        });
+    }
+
+    @Test
+    public void statementsInUseAreNotShared() {
+        transactionManager.setStatementCacheSize(10);
+
+        db.withVoidTransaction(tx -> {
+            PreparedStatement first = tx.prepareStatement("values (1)");
+            PreparedStatement second = tx.prepareStatement("values (1)");
+
+            assertThat(second, is(not(sameInstance(first))));
+
+            tx.releaseStatement(first);
+            tx.releaseStatement(second);
+        });
+    }
+
+    @Test
+    public void statementsAreClosedWhenTransactionCompletes() throws Exception {
+        transactionManager.setStatementCacheSize(10);
+
+        PreparedStatement statement = db.withTransaction(tx -> {
+            PreparedStatement ps = tx.prepareStatement("values (1)");
+            tx.releaseStatement(ps);
+            return ps;
+        });
+
+        assertTrue(statement.isClosed());
+    }
+
+    @Test
+    public void leastRecentlyUsedStatementsAreEvicted() throws Exception {
+        transactionManager.setStatementCacheSize(1);
+
+        db.withVoidTransaction(tx -> {
+            PreparedStatement first = tx.prepareStatement("values (1)");
+            tx.releaseStatement(first);
+            PreparedStatement second = tx.prepareStatement("values (2)");
+            tx.releaseStatement(second);
+
+            assertTrue(first.isClosed());
+            assertThat(second.isClosed(), is(false));
+        });
+    }
+
+    @Test
+    public void statementsAreNotCachedByDefault() {
+        db.withVoidTransaction(tx -> {
+            PreparedStatement ps = tx.prepareStatement("values (1)");
+            tx.releaseStatement(ps);
+
+            assertTrue(ps.isClosed());
+        });
+    }
+
+    @Test
+    public void settingsOfQueriesDoNotLeakToReusedStatements() {
+        transactionManager.setStatementCacheSize(10);
+
+        db.withVoidTransaction(tx -> {
+            db.update("drop table if exists numbers");
+            db.update("create table numbers (num int)");
+            db.updateBatch("insert into numbers (num) values (?)", asList(asList(1), asList(2), asList(3)));
+
+            List<Integer> limited = db.findAll(Integer.class, query("select num from numbers order by num").withMaxRows(1));
+            List<Integer> all = db.findAll(Integer.class, "select num from numbers order by num");
+
+            assertThat(limited, is(asList(1)));
+            assertThat(all, is(asList(1, 2, 3)));
+        });
+    }
+
+    @Test
+    public void statementIsClosedIfResettingItFails() throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        doThrow(new SQLException("reset failed")).when(statement).clearParameters();
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement("values (1)")).thenReturn(statement);
+
+        StatementCache cache = new StatementCache(connection, 10);
+        PreparedStatement ps = cache.prepareStatement("values (1)", null);
+        try {
+            cache.releaseStatement(ps);
+            fail("Expected SQLException");
+        } catch (SQLException e) {
+            assertThat(e.getMessage(), is("reset failed"));
+        }
+
+        verify(statement).close();
+    }
+}